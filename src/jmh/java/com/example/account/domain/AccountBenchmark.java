@@ -0,0 +1,45 @@
+package com.example.account.domain;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 계좌 엔티티의 잔액 변경 비용 (./gradlew jmh)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class AccountBenchmark {
+    private static final long AMOUNT = 1_000L;
+
+    private Account account;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        // 반복 중에 잔액이 모자라지 않도록 충분히 크게 잡는다
+        account = Account.builder()
+                .accountNumber("1000000000")
+                .balance(Long.MAX_VALUE / 2)
+                .build();
+    }
+
+    @Benchmark
+    public Long useBalance() {
+        account.useBalance(AMOUNT);
+        return account.getBalance();
+    }
+
+    @Benchmark
+    public Long cancelBalance() {
+        account.cancelBalance(AMOUNT);
+        return account.getBalance();
+    }
+
+    @Benchmark
+    public Long useThenCancelBalance() {
+        account.useBalance(AMOUNT);
+        account.cancelBalance(AMOUNT);
+        return account.getBalance();
+    }
+}
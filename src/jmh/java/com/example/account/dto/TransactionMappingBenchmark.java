@@ -0,0 +1,70 @@
+package com.example.account.dto;
+
+import com.example.account.domain.Account;
+import com.example.account.domain.Transaction;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transaction -> TransactionDto -> 응답 DTO 변환 비용 (./gradlew jmh)
+ * 응답이 실제로 나가는 모양까지 보기 위해 JSON 직렬화도 함께 잰다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class TransactionMappingBenchmark {
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private Transaction transaction;
+    private TransactionDto transactionDto;
+
+    @Setup
+    public void setUp() {
+        transaction = Transaction.builder()
+                .id(1L)
+                .account(Account.builder()
+                        .id(1L)
+                        .accountNumber("1000000000")
+                        .balance(9_000L)
+                        .build())
+                .transactionType(TransactionType.USE)
+                .transactionResultType(TransactionResultType.S)
+                .amount(1_000L)
+                .balanceSnapshot(9_000L)
+                .transactionId("0FJ5W3M7N1Q2R")
+                .transactedAt(LocalDateTime.of(2022, 6, 1, 12, 0))
+                .build();
+        transactionDto = TransactionDto.fromEntity(transaction);
+    }
+
+    @Benchmark
+    public TransactionDto toTransactionDto() {
+        return TransactionDto.fromEntity(transaction);
+    }
+
+    @Benchmark
+    public UseBalance.Response toUseBalanceResponse() {
+        return UseBalance.Response.from(TransactionDto.fromEntity(transaction));
+    }
+
+    @Benchmark
+    public QueryTransactionResponse toQueryTransactionResponse() {
+        return QueryTransactionResponse.from(TransactionDto.fromEntity(transaction));
+    }
+
+    @Benchmark
+    public String useBalanceResponseJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(UseBalance.Response.from(transactionDto));
+    }
+
+    @Benchmark
+    public String queryTransactionResponseJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(QueryTransactionResponse.from(transactionDto));
+    }
+}
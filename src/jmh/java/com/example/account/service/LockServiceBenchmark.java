@@ -0,0 +1,76 @@
+package com.example.account.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
+import org.redisson.config.Config;
+import redis.embedded.RedisServer;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 계좌 락 획득/해제 비용 (./gradlew jmh)
+ * redis 락은 embedded redis 왕복을 포함하고, 로컬 락은 같은 경로에서 redis 를 뺀 기준선이다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class LockServiceBenchmark {
+    private static final int REDIS_PORT = Integer.getInteger("benchmark.redis.port", 6390);
+    private static final int ACCOUNTS = 10_000;
+
+    private RedisServer redisServer;
+    private RedissonClient redissonClient;
+    private LockService lockService;
+    private LocalLockStrategy localLockStrategy;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        redisServer = new RedisServer(REDIS_PORT);
+        redisServer.start();
+
+        Config config = new Config();
+        config.useSingleServer().setAddress("redis://127.0.0.1:" + REDIS_PORT);
+        redissonClient = Redisson.create(config);
+        lockService = new LockService(redissonClient);
+        localLockStrategy = new LocalLockStrategy();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        redissonClient.shutdown();
+        redisServer.stop();
+    }
+
+    // 같은 계좌를 반복해서 잠근다 (스레드 1개라 경합 없음)
+    @Benchmark
+    public void redisLockSameAccount() {
+        lockService.lock("1000000000");
+        lockService.unlock("1000000000");
+    }
+
+    // 요청마다 다른 계좌
+    @Benchmark
+    public void redisLockRandomAccount() {
+        String accountNumber = randomAccountNumber();
+        lockService.lock(accountNumber);
+        lockService.unlock(accountNumber);
+    }
+
+    // 스레드 4개가 서로 다른 계좌를 잠근다
+    @Benchmark
+    @Threads(4)
+    public void redisLockRandomAccountThreads4() {
+        redisLockRandomAccount();
+    }
+
+    @Benchmark
+    public Object localLockRandomAccount() throws Throwable {
+        return localLockStrategy.executeWithLock(randomAccountNumber(), 1000L, () -> null);
+    }
+
+    private static String randomAccountNumber() {
+        return String.valueOf(1_000_000_000L + ThreadLocalRandom.current().nextInt(ACCOUNTS));
+    }
+}
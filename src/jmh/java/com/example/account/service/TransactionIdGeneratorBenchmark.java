@@ -0,0 +1,38 @@
+package com.example.account.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 거래 id 생성 비용 비교 (./gradlew jmh)
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class TransactionIdGeneratorBenchmark {
+    private final TransactionIdGenerator uuid = new UuidTransactionIdGenerator();
+    private final TransactionIdGenerator timeOrdered = new TimeOrderedTransactionIdGenerator(0);
+
+    @Benchmark
+    public String uuid() {
+        return uuid.generate();
+    }
+
+    @Benchmark
+    public String timeOrdered() {
+        return timeOrdered.generate();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String uuidContended() {
+        return uuid.generate();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String timeOrderedContended() {
+        return timeOrdered.generate();
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.account.loadtest;
+
+import java.util.Random;
+
+/**
+ * 요청이 어느 계좌(0 ~ size-1)로 갈지 정하는 분포
+ */
+public interface KeyDistribution {
+    int next(Random random);
+
+    static KeyDistribution of(String name, int size, double zipfExponent, double hotRatio) {
+        switch (name) {
+            case "uniform":
+                return uniform(size);
+            case "zipf":
+                return zipf(size, zipfExponent);
+            case "hot":
+                return hot(size, hotRatio);
+            default:
+                throw new IllegalArgumentException("Unknown distribution : " + name);
+        }
+    }
+
+    static KeyDistribution uniform(int size) {
+        return random -> random.nextInt(size);
+    }
+
+    /**
+     * k 번째 계좌의 확률이 1/k^s 에 비례 (s 가 클수록 앞쪽 계좌에 몰린다)
+     */
+    static KeyDistribution zipf(int size, double exponent) {
+        double[] cumulative = new double[size];
+        double sum = 0;
+        for (int k = 0; k < size; k++) {
+            sum += 1.0 / Math.pow(k + 1, exponent);
+            cumulative[k] = sum;
+        }
+        double total = sum;
+        return random -> {
+            double target = random.nextDouble() * total;
+            int low = 0;
+            int high = size - 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (cumulative[mid] < target) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        };
+    }
+
+    /**
+     * hotRatio 만큼은 0 번 계좌 하나로, 나머지는 고르게
+     */
+    static KeyDistribution hot(int size, double hotRatio) {
+        return random -> random.nextDouble() < hotRatio ? 0 : random.nextInt(size);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.account.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * 작업 스레드 하나가 쓰는 지연 기록 (나노초)
+ * 끝난 뒤 merge 해서 백분위를 계산한다.
+ */
+public class LatencyRecorder {
+    private long[] latencies = new long[1024];
+    private int size;
+    private long lockRejections;
+    private long errors;
+
+    public void record(long latencyNanos) {
+        if (size == latencies.length) {
+            latencies = Arrays.copyOf(latencies, size * 2);
+        }
+        latencies[size++] = latencyNanos;
+    }
+
+    public void recordLockRejection() {
+        lockRejections++;
+    }
+
+    public void recordError() {
+        errors++;
+    }
+
+    public void merge(LatencyRecorder other) {
+        for (int i = 0; i < other.size; i++) {
+            record(other.latencies[i]);
+        }
+        lockRejections += other.lockRejections;
+        errors += other.errors;
+    }
+
+    public int count() {
+        return size;
+    }
+
+    public long lockRejections() {
+        return lockRejections;
+    }
+
+    public long errors() {
+        return errors;
+    }
+
+    /**
+     * merge 가 끝난 뒤에만 호출한다. (정렬한다)
+     */
+    public double percentileMillis(double percentile) {
+        if (size == 0) {
+            return 0;
+        }
+        Arrays.sort(latencies, 0, size);
+        int index = (int) Math.ceil(percentile * size) - 1;
+        return latencies[Math.max(0, index)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,247 @@
+package com.example.account.loadtest;
+
+import com.example.account.AccountApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * HTTP 부하 발생기 (./gradlew loadTest -Dload.distribution=zipf ...)
+ * 애플리케이션(embedded redis 포함)을 같은 JVM 에 띄우고, 계좌를 만든 뒤
+ * 작업 스레드마다 요청을 하나씩 보내고 응답을 기다리는 방식(closed loop)으로 부하를 준다.
+ *
+ * load.threads          동시 요청 수 (64)
+ * load.duration-seconds 측정 시간 (30), load.warmup-seconds 측정 전 예열 (5)
+ * load.accounts         계좌 수 (1000)
+ * load.distribution     uniform | zipf | hot (uniform)
+ * load.zipf-exponent    zipf 지수 (1.0), load.hot-ratio hot 계좌로 가는 비율 (0.9)
+ * load.mix              작업 비율 (use:70,cancel:10,query:15,account:5)
+ * load.path-prefix      사용/취소 경로 앞에 붙일 값 ("" | /async)
+ *                       (동기 /transaction/use 는 요청마다 5초를 기다리므로 /async 로 락 경합만 볼 수 있다)
+ */
+public class LoadGenerator {
+    private static final long ID_OFFSET = 300_000_000L;
+    private static final long ACCOUNT_NUMBER_OFFSET = 8_000_000_000L;
+    private static final long OPENING_BALANCE = 1_000_000_000L;
+    private static final long AMOUNT = 100L;
+    private static final int USERS = 3;
+    private static final int MAX_RECENT_TRANSACTIONS = 1000;
+    private static final Pattern TRANSACTION_ID = Pattern.compile("\"transactionId\":\"([^\"]+)\"");
+
+    enum Operation {
+        ACCOUNT, USE, CANCEL, QUERY
+    }
+
+    private final int threads = Integer.getInteger("load.threads", 64);
+    private final long durationSeconds = Long.getLong("load.duration-seconds", 30L);
+    private final long warmupSeconds = Long.getLong("load.warmup-seconds", 5L);
+    private final int accounts = Integer.getInteger("load.accounts", 1000);
+    private final String distributionName = System.getProperty("load.distribution", "uniform");
+    private final String pathPrefix = System.getProperty("load.path-prefix", "");
+    private final KeyDistribution distribution = KeyDistribution.of(distributionName, accounts,
+            Double.parseDouble(System.getProperty("load.zipf-exponent", "1.0")),
+            Double.parseDouble(System.getProperty("load.hot-ratio", "0.9")));
+    private final Operation[] operations = parseMix(
+            System.getProperty("load.mix", "use:70,cancel:10,query:15,account:5"));
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private String baseUrl;
+
+    public static void main(String[] args) throws Exception {
+        ConfigurableApplicationContext context = SpringApplication.run(AccountApplication.class,
+                "--server.port=0",
+                "--spring.jpa.properties.hibernate.show_sql=false",
+                "--spring.jpa.properties.hibernate.format_sql=false",
+                "--logging.level.com.example.account=WARN");
+        try {
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            LoadGenerator generator = new LoadGenerator();
+            generator.baseUrl = "http://localhost:" + port;
+            generator.createAccounts(context.getBean(JdbcTemplate.class));
+            generator.run();
+        } finally {
+            context.close();
+        }
+    }
+
+    private void createAccounts(JdbcTemplate jdbcTemplate) {
+        // 계좌 생성 API 는 사용자당 10개까지라 DB 에 바로 넣는다
+        jdbcTemplate.update("insert into account"
+                        + " (id, account_user_id, account_number, account_status, balance, opening_balance, version,"
+                        + " registered_at, created_at, updated_at)"
+                        + " select x + ?, mod(x, ?) + 1, cast(? + x as varchar), 'IN_USE', ?, ?, 0, ?, now(), now()"
+                        + " from system_range(0, ?)",
+                ID_OFFSET, USERS, ACCOUNT_NUMBER_OFFSET, OPENING_BALANCE, OPENING_BALANCE, LocalDateTime.now(), accounts - 1);
+    }
+
+    private void run() throws Exception {
+        long warmupEnd = System.nanoTime() + Duration.ofSeconds(warmupSeconds).toNanos();
+        long end = warmupEnd + Duration.ofSeconds(durationSeconds).toNanos();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Map<Operation, LatencyRecorder>>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            long seed = i;
+            futures.add(executor.submit(() -> work(new Random(seed), warmupEnd, end)));
+        }
+
+        Map<Operation, LatencyRecorder> merged = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            merged.put(operation, new LatencyRecorder());
+        }
+        for (Future<Map<Operation, LatencyRecorder>> future : futures) {
+            future.get().forEach((operation, recorder) -> merged.get(operation).merge(recorder));
+        }
+        executor.shutdown();
+
+        report(merged);
+    }
+
+    private Map<Operation, LatencyRecorder> work(Random random, long warmupEnd, long end) {
+        Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new LatencyRecorder());
+        }
+        // 이 스레드가 만든 성공 거래 (취소/조회 대상)
+        Deque<String[]> recent = new ArrayDeque<>();
+
+        long now;
+        while ((now = System.nanoTime()) < end) {
+            Operation operation = operations[random.nextInt(operations.length)];
+            if ((operation == Operation.CANCEL || operation == Operation.QUERY) && recent.isEmpty()) {
+                operation = Operation.USE;
+            }
+            int account = distribution.next(random);
+
+            String[] cancelled = operation == Operation.CANCEL ? recent.pollLast() : null;
+            HttpRequest request = buildRequest(operation, account, cancelled, recent, random);
+
+            long start = System.nanoTime();
+            String body;
+            try {
+                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                body = response.statusCode() == 200 ? response.body() : null;
+            } catch (Exception e) {
+                body = null;
+            }
+            long latency = System.nanoTime() - start;
+
+            if (operation == Operation.USE && body != null && !body.contains("\"errorCode\"")) {
+                Matcher matcher = TRANSACTION_ID.matcher(body);
+                if (matcher.find()) {
+                    recent.addLast(new String[]{matcher.group(1), accountNumber(account)});
+                    if (recent.size() > MAX_RECENT_TRANSACTIONS) {
+                        recent.pollFirst();
+                    }
+                }
+            }
+
+            if (now < warmupEnd) {
+                continue;
+            }
+            LatencyRecorder recorder = recorders.get(operation);
+            recorder.record(latency);
+            if (body == null) {
+                recorder.recordError();
+            } else if (body.contains("ACCOUNT_TRANSACTION_LOCK")) {
+                recorder.recordLockRejection();
+            } else if (body.contains("\"errorCode\"")) {
+                recorder.recordError();
+            }
+        }
+        return recorders;
+    }
+
+    private HttpRequest buildRequest(Operation operation, int account, String[] cancelled,
+                                     Deque<String[]> recent, Random random) {
+        long userId = account % USERS + 1;
+        switch (operation) {
+            case ACCOUNT:
+                return HttpRequest.newBuilder(URI.create(baseUrl + "/account?user_id=" + userId))
+                        .GET()
+                        .build();
+            case QUERY:
+                String[] queried = new ArrayList<>(recent).get(random.nextInt(recent.size()));
+                return HttpRequest.newBuilder(URI.create(baseUrl + "/transaction/" + queried[0]))
+                        .GET()
+                        .build();
+            case CANCEL:
+                return post(pathPrefix + "/transaction/cancel", String.format(
+                        "{\"transactionId\":\"%s\",\"accountNumber\":\"%s\",\"amount\":%d}",
+                        cancelled[0], cancelled[1], AMOUNT));
+            default:
+                return post(pathPrefix + "/transaction/use", String.format(
+                        "{\"userId\":%d,\"accountNumber\":\"%s\",\"amount\":%d}",
+                        userId, accountNumber(account), AMOUNT));
+        }
+    }
+
+    private HttpRequest post(String path, String body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private void report(Map<Operation, LatencyRecorder> recorders) {
+        System.out.printf("%n== distribution=%s, threads=%d, accounts=%d, duration=%ds, path-prefix='%s' ==%n",
+                distributionName, threads, accounts, durationSeconds, pathPrefix);
+        System.out.printf("%-8s %9s %9s %9s %9s %9s %12s %8s%n",
+                "op", "count", "req/s", "p50(ms)", "p99(ms)", "p999(ms)", "lock-rej(%)", "errors");
+
+        LatencyRecorder total = new LatencyRecorder();
+        recorders.forEach((operation, recorder) -> {
+            total.merge(recorder);
+            print(operation.name().toLowerCase(), recorder);
+        });
+        print("total", total);
+    }
+
+    private void print(String name, LatencyRecorder recorder) {
+        System.out.printf("%-8s %9d %9.0f %9.2f %9.2f %9.2f %12.2f %8d%n",
+                name, recorder.count(), recorder.count() / (double) durationSeconds,
+                recorder.percentileMillis(0.50), recorder.percentileMillis(0.99),
+                recorder.percentileMillis(0.999),
+                recorder.count() == 0 ? 0 : recorder.lockRejections() * 100.0 / recorder.count(),
+                recorder.errors());
+    }
+
+    private static String accountNumber(int account) {
+        return String.valueOf(ACCOUNT_NUMBER_OFFSET + account);
+    }
+
+    /**
+     * "use:70,cancel:10" -> 가중치만큼 반복한 배열 (무작위 인덱스로 고른다)
+     */
+    private static Operation[] parseMix(String mix) {
+        List<Operation> weighted = new ArrayList<>();
+        for (String entry : mix.split(",")) {
+            String[] pair = entry.trim().split(":");
+            Operation operation = Operation.valueOf(pair[0].trim().toUpperCase());
+            for (int i = 0; i < Integer.parseInt(pair[1].trim()); i++) {
+                weighted.add(operation);
+            }
+        }
+        if (weighted.isEmpty()) {
+            throw new IllegalArgumentException("load.mix is empty");
+        }
+        return weighted.toArray(new Operation[0]);
+    }
+}
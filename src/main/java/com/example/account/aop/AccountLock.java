@@ -1,5 +1,8 @@
 package com.example.account.aop;
 
+import com.example.account.type.LockScope;
+import com.example.account.type.LockType;
+
 import java.lang.annotation.*;
 
 @Target(ElementType.METHOD)
@@ -7,5 +10,11 @@ import java.lang.annotation.*;
 @Documented
 @Inherited
 public @interface AccountLock {
-    long tryLockTime() default 5000L;
+    // DEFAULT 이면 account.lock.type 설정값을 따른다
+    LockType type() default LockType.DEFAULT;
+
+    long tryLockTime() default 1000L;
+
+    // 같은 요청에 REQUEST 와 ACCOUNT_WORK 를 나눠 두면 전략에 따라 한 곳에서만 잡는다
+    LockScope scope() default LockScope.ALL;
 }
@@ -0,0 +1,28 @@
+package com.example.account.config;
+
+import com.example.account.profiling.ServerTimingFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * /transaction/*, /account 응답에 단계별 소요 시간(Server-Timing)을 싣는다.
+ * 꺼져 있으면 필터와 ServerTimingAdvice 가 등록되지 않고, 단계 계측도 ThreadLocal 을 보지 않는다.
+ * 요청 스레드의 ThreadLocal 에 모으므로 /async/transaction/* 처럼 다른 스레드에서 처리하는 요청은 대상이 아니다.
+ * SINGLE_WRITER 락은 shard 스레드로 넘겨서 재므로 lock, db-read, db-write 가 모두 실린다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "account.server-timing.enabled", havingValue = "true")
+public class ServerTimingConfiguration {
+    @Bean
+    public FilterRegistrationBean<ServerTimingFilter> serverTimingFilter(
+            @Value("${account.server-timing.sample-rate:1.0}") double sampleRate
+    ) {
+        FilterRegistrationBean<ServerTimingFilter> registration =
+                new FilterRegistrationBean<>(new ServerTimingFilter(sampleRate));
+        registration.addUrlPatterns("/transaction/*", "/account", "/account/*");
+        return registration;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.account.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ConcurrentTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * virtual-threads 프로필
+ * 톰캣 요청 처리(LockAopAspect, 서비스 포함)와 MVC 비동기 작업을 요청마다 가상 스레드에서 실행한다.
+ * JDK 21 이상에서만 동작하고, 바이트코드를 11 로 유지하기 위해 executor 는 리플렉션으로 만든다.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "account.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadConfiguration {
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService virtualThreadExecutor() {
+        try {
+            ExecutorService executor = (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+            log.info("Request handling runs on virtual threads. (JDK {})", Runtime.version());
+            return executor;
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(
+                    "account.virtual-threads.enabled requires JDK 21+, running " + Runtime.version(), e);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer(
+            ExecutorService virtualThreadExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+
+    // StreamingResponseBody(거래 내보내기) 등 MVC 비동기 작업
+    @Bean
+    public WebMvcConfigurer virtualThreadAsyncSupportConfigurer(ExecutorService virtualThreadExecutor) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+                configurer.setTaskExecutor(new ConcurrentTaskExecutor(virtualThreadExecutor));
+            }
+        };
+    }
+}
@@ -12,7 +12,6 @@ import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Slf4j
 @RestController
@@ -46,12 +45,7 @@ public class AccountController {
     public List<AccountInfo> getAccountsByUserId(
             @RequestParam("user_id") Long userId
     ) {
-        return accountService.getAccountsByUserId(userId)
-                .stream().map(accountDto -> AccountInfo.builder()
-                        .accountNumber(accountDto.getAccountNumber())
-                        .balance(accountDto.getBalance())
-                        .build())
-                .collect(Collectors.toList());
+        return accountService.getAccountInfosByUserId(userId);
     }
 
     @GetMapping("/account/{accountId}")
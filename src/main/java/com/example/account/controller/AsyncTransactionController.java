@@ -0,0 +1,44 @@
+package com.example.account.controller;
+
+import com.example.account.dto.CancelBalance;
+import com.example.account.dto.UseBalance;
+import com.example.account.service.AsyncTransactionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.validation.Valid;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 잔액 사용/취소 비동기 API
+ * 요청/응답 형식은 동기 API 와 같고, 락 대기와 DB 작업 동안 요청 스레드를 반환한다.
+ * 1. 잔액 사용
+ * 2. 잔액 사용 취소
+ */
+@RestController
+@RequiredArgsConstructor
+public class AsyncTransactionController {
+    private final AsyncTransactionService asyncTransactionService;
+
+    @PostMapping("/async/transaction/use")
+    public CompletableFuture<UseBalance.Response> useBalance(
+            @Valid @RequestBody UseBalance.Request request
+    ) {
+        return asyncTransactionService.useBalance(request.getUserId(),
+                        request.getAccountNumber(),
+                        request.getAmount())
+                .thenApply(UseBalance.Response::from);
+    }
+
+    @PostMapping("/async/transaction/cancel")
+    public CompletableFuture<CancelBalance.Response> cancelBalance(
+            @Valid @RequestBody CancelBalance.Request request
+    ) {
+        return asyncTransactionService.cancelBalance(request.getTransactionId(),
+                        request.getAccountNumber(),
+                        request.getAmount())
+                .thenApply(CancelBalance.Response::from);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.account.controller;
+
+import com.example.account.dto.RecordingStatus;
+import com.example.account.service.FlightRecordingService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * JFR 기록
+ * 1. 기록 시작 / 중지 / 상태 조회
+ * 2. 기록 내려받기 (jfr print --events com.example.account.Phase account.jfr)
+ * 인증이 없으므로 account.profiling.endpoint-enabled 일 때만 연다.
+ */
+@RestController
+@ConditionalOnProperty(name = "account.profiling.endpoint-enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class ProfilingController {
+    private final FlightRecordingService flightRecordingService;
+
+    @PostMapping("/profiling/recording/start")
+    public RecordingStatus startRecording() {
+        return flightRecordingService.start();
+    }
+
+    @PostMapping("/profiling/recording/stop")
+    public RecordingStatus stopRecording() {
+        return flightRecordingService.stop();
+    }
+
+    @GetMapping("/profiling/recording")
+    public RecordingStatus getRecording() {
+        return flightRecordingService.getStatus();
+    }
+
+    @GetMapping("/profiling/recording/dump")
+    public ResponseEntity<StreamingResponseBody> dumpRecording() {
+        // 기록이 없으면 응답을 쓰기 전에 실패시킨다
+        flightRecordingService.getStatus();
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"account.jfr\"")
+                .body(flightRecordingService::dump);
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.account.controller;
+
+import com.example.account.dto.ReconciliationReport;
+import com.example.account.exception.AccountException;
+import com.example.account.service.ReconciliationService;
+import com.example.account.type.ErrorCode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 잔액 대사
+ * 1. 대사 시작 (백그라운드 실행)
+ * 2. 진행 상황 / 결과 조회
+ * 인증이 없으므로 account.reconciliation.endpoint-enabled 일 때만 등록한다.
+ */
+@RestController
+@ConditionalOnProperty(name = "account.reconciliation.endpoint-enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class ReconciliationController {
+    private final ReconciliationService reconciliationService;
+
+    @PostMapping("/reconciliation")
+    public ReconciliationReport startReconciliation() {
+        return reconciliationService.start();
+    }
+
+    @GetMapping("/reconciliation")
+    public ReconciliationReport getReconciliation() {
+        return reconciliationService.getReport()
+                .orElseThrow(() -> new AccountException(ErrorCode.INVALID_REQUEST));
+    }
+}
@@ -3,14 +3,32 @@ package com.example.account.controller;
 import com.example.account.aop.AccountLock;
 import com.example.account.dto.CancelBalance;
 import com.example.account.dto.QueryTransactionResponse;
+import com.example.account.dto.TransactionHistory;
 import com.example.account.dto.UseBalance;
+import com.example.account.dto.UseBalanceBatch;
 import com.example.account.exception.AccountException;
+import com.example.account.service.BalanceLedger;
+import com.example.account.service.FailedTransactionRecorder;
+import com.example.account.service.LockedTransactionService;
+import com.example.account.service.TransactionBatchService;
+import com.example.account.service.TransactionExportService;
 import com.example.account.service.TransactionService;
+import com.example.account.type.LockScope;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
 
 
 /**
@@ -18,29 +36,45 @@ import javax.validation.Valid;
  * 1. 잔액 사용
  * 2. 잔액 사용 취소
  * 3. 거래 확인
+ * 4. 잔액 일괄 사용
+ * 5. 계좌 거래 내역 조회
+ * 6. 기간별 거래 내보내기
  */
 @Slf4j
 @RestController
 @RequiredArgsConstructor
 public class TransactionController {
     private final TransactionService transactionService;
+    private final LockedTransactionService lockedTransactionService;
+    private final TransactionBatchService transactionBatchService;
+    private final FailedTransactionRecorder failedTransactionRecorder;
+    private final TransactionExportService transactionExportService;
+    private final ObjectProvider<BalanceLedger> balanceLedger;
 
     @PostMapping("/transaction/use")
-    @AccountLock
+    @AccountLock(scope = LockScope.REQUEST)
     public UseBalance.Response useBalance(
             @Valid @RequestBody UseBalance.Request request
     ) throws InterruptedException {
-        try {
-            Thread.sleep(5000L);
+        // 메모리 원장 계좌는 실패 거래도 원장이 기록한다
+        BalanceLedger ledger = balanceLedger.getIfAvailable();
+        if (ledger != null && ledger.manages(request.getAccountNumber())) {
             return UseBalance.Response.from(
-                    transactionService.useBalance(request.getUserId(),
+                    ledger.useBalance(request.getUserId(),
                             request.getAccountNumber(),
                             request.getAmount())
             );
+        }
+
+        try {
+            Thread.sleep(5000L);
+            return UseBalance.Response.from(
+                    lockedTransactionService.useBalance(request)
+            );
         } catch (AccountException e) {
             log.error("Failed to use balance. ");
 
-            transactionService.saveFailedUseTransaction(
+            failedTransactionRecorder.recordUse(
                     request.getAccountNumber(),
                     request.getAmount()
             );
@@ -49,21 +83,37 @@ public class TransactionController {
         }
     }
 
+    @PostMapping("/transaction/use/batch")
+    public List<UseBalance.Response> useBalances(
+            @Valid @RequestBody UseBalanceBatch.Request request
+    ) {
+        return transactionBatchService.useBalances(request.getRequests())
+                .stream().map(UseBalance.Response::from)
+                .collect(Collectors.toList());
+    }
+
     @PostMapping("/transaction/cancel")
-    @AccountLock
+    @AccountLock(scope = LockScope.REQUEST)
     public CancelBalance.Response cancelBalance(
             @Valid @RequestBody CancelBalance.Request request
     ) {
-        try {
+        BalanceLedger ledger = balanceLedger.getIfAvailable();
+        if (ledger != null && ledger.manages(request.getAccountNumber())) {
             return CancelBalance.Response.from(
-                    transactionService.cancelBalance(request.getTransactionId(),
+                    ledger.cancelBalance(request.getTransactionId(),
                             request.getAccountNumber(),
                             request.getAmount())
             );
+        }
+
+        try {
+            return CancelBalance.Response.from(
+                    lockedTransactionService.cancelBalance(request)
+            );
         } catch (AccountException e) {
             log.error("Failed to use balance. ");
 
-            transactionService.saveFailedCancelTransaction(
+            failedTransactionRecorder.recordCancel(
                     request.getAccountNumber(),
                     request.getAmount()
             );
@@ -80,4 +130,29 @@ public class TransactionController {
                 transactionService.queryTransaction(transactionId)
         );
     }
+
+    @GetMapping("/account/{accountNumber}/transactions")
+    public TransactionHistory.Response getTransactions(
+            @PathVariable String accountNumber,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) TransactionType type,
+            @RequestParam(required = false) TransactionResultType result
+    ) {
+        return TransactionHistory.Response.from(accountNumber,
+                transactionService.getTransactions(accountNumber, cursor, size, type, result));
+    }
+
+    // from 이상 to 미만, 응답을 버퍼링하지 않고 읽는 대로 내려보낸다
+    @GetMapping("/transaction/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
+    ) {
+        transactionExportService.validateRange(from, to);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(outputStream -> transactionExportService.export(from, to, outputStream));
+    }
 }
@@ -1,9 +1,13 @@
 package com.example.account.domain;
 
+import com.example.account.config.PooledSequenceGenerator;
 import com.example.account.exception.AccountException;
 import com.example.account.type.AccountStatus;
 import com.example.account.type.ErrorCode;
 import lombok.*;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -20,12 +24,17 @@ import java.time.LocalDateTime;
 @EntityListeners(AuditingEntityListener.class)
 public class Account {
     @Id
-    @GeneratedValue
+    @GeneratedValue(generator = "account_seq")
+    @GenericGenerator(name = "account_seq", strategy = PooledSequenceGenerator.STRATEGY,
+            parameters = {
+                    @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "account_seq")
+            })
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private AccountUser accountUser;
 
+    @Column(unique = true)
     private String accountNumber;
 
     @Enumerated(EnumType.STRING)
@@ -33,6 +42,12 @@ public class Account {
 
     private Long balance;
 
+    // 개설 시 잔액 (대사의 시작점, 이 컬럼 전에 만든 계좌는 null)
+    private Long openingBalance;
+
+    @Version
+    private Long version;
+
     private LocalDateTime registeredAt;
     private LocalDateTime unregisteredAt;
 
@@ -1,6 +1,10 @@
 package com.example.account.domain;
 
+import com.example.account.config.PooledSequenceGenerator;
 import lombok.*;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -20,7 +24,13 @@ import java.time.LocalDateTime;
 @EntityListeners(AuditingEntityListener.class)
 public class AccountUser {
     @Id
-    @GeneratedValue
+    @GeneratedValue(generator = "account_user_seq")
+    @GenericGenerator(name = "account_user_seq", strategy = PooledSequenceGenerator.STRATEGY,
+            parameters = {
+                    @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "account_user_seq"),
+                    // data.sql 로 넣는 초기 사용자 id 와 겹치지 않도록
+                    @Parameter(name = SequenceStyleGenerator.INITIAL_PARAM, value = "100")
+            })
     private Long id;
 
     private String name;
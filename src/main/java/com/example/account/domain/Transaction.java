@@ -1,8 +1,12 @@
 package com.example.account.domain;
 
+import com.example.account.config.PooledSequenceGenerator;
 import com.example.account.type.TransactionResultType;
 import com.example.account.type.TransactionType;
 import lombok.*;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -17,9 +21,20 @@ import java.time.LocalDateTime;
 @Builder
 @Entity
 @EntityListeners(AuditingEntityListener.class)
+@Table(indexes = {
+        @Index(name = "idx_transaction_transaction_id",
+                columnList = "transactionId", unique = true),
+        // 계좌별 거래 내역 keyset 페이징
+        @Index(name = "idx_transaction_account_transacted_at",
+                columnList = "account_id, transactedAt, id")
+})
 public class Transaction {
     @Id
-    @GeneratedValue
+    @GeneratedValue(generator = "transaction_seq")
+    @GenericGenerator(name = "transaction_seq", strategy = PooledSequenceGenerator.STRATEGY,
+            parameters = {
+                    @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "transaction_seq")
+            })
     private Long id;
 
     @Enumerated(EnumType.STRING)
@@ -28,7 +43,7 @@ public class Transaction {
     @Enumerated(EnumType.STRING)
     private TransactionResultType transactionResultType;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Account account;
 
     private Long amount;
@@ -0,0 +1,15 @@
+package com.example.account.dto;
+
+import lombok.*;
+
+/**
+ * 대사용 계좌 잔액 (projection)
+ */
+@Getter
+@AllArgsConstructor
+public class AccountBalance {
+    private final Long accountId;
+    private final String accountNumber;
+    private final Long balance;
+    private final Long openingBalance;
+}
@@ -0,0 +1,22 @@
+package com.example.account.dto;
+
+import lombok.*;
+
+/**
+ * 거래 기록을 다시 계산한 잔액과 저장된 값이 다른 계좌
+ * replayedBalance : 개설 시 잔액에서 성공 거래를 순서대로 반영한 값
+ * latestSnapshot  : 마지막 성공 거래의 balanceSnapshot (거래가 없으면 null)
+ * mismatchedSnapshots : 재계산 값과 다른 balanceSnapshot 수
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccountDrift {
+    private String accountNumber;
+    private Long storedBalance;
+    private Long replayedBalance;
+    private Long latestSnapshot;
+    private int mismatchedSnapshots;
+}
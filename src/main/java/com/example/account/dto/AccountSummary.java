@@ -0,0 +1,27 @@
+package com.example.account.dto;
+
+import com.example.account.domain.Account;
+import com.example.account.type.AccountStatus;
+import lombok.*;
+
+/**
+ * 소유주/상태 검증에 필요한 계좌 정보 (AccountCache 에 보관)
+ */
+@Getter
+@AllArgsConstructor
+@Builder
+public class AccountSummary {
+    private final Long accountId;
+    private final String accountNumber;
+    private final Long ownerUserId;
+    private final AccountStatus accountStatus;
+
+    public static AccountSummary fromEntity(Account account) {
+        return AccountSummary.builder()
+                .accountId(account.getId())
+                .accountNumber(account.getAccountNumber())
+                .ownerUserId(account.getAccountUser().getId())
+                .accountStatus(account.getAccountStatus())
+                .build();
+    }
+}
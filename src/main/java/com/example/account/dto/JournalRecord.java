@@ -0,0 +1,56 @@
+package com.example.account.dto;
+
+import com.example.account.domain.Account;
+import com.example.account.domain.Transaction;
+import com.example.account.type.JournalRecordState;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 거래 저널 레코드 한 건
+ * sequence 는 저널에 쓸 때 붙는다.
+ * 같은 거래가 PREPARED 레코드와 COMMITTED(또는 ABORTED) 레코드로 두 번 쓰일 수 있다.
+ */
+@Getter
+@AllArgsConstructor
+@Builder
+public class JournalRecord {
+    private final long sequence;
+    private final String transactionId;
+    private final Long accountId;
+    private final TransactionType transactionType;
+    private final TransactionResultType transactionResultType;
+    private final Long amount;
+    private final Long balanceSnapshot;
+    private final LocalDateTime transactedAt;
+    @With
+    @Builder.Default
+    private final JournalRecordState state = JournalRecordState.COMMITTED;
+
+    public static JournalRecord from(Transaction transaction) {
+        return JournalRecord.builder()
+                .transactionId(transaction.getTransactionId())
+                .accountId(transaction.getAccount().getId())
+                .transactionType(transaction.getTransactionType())
+                .transactionResultType(transaction.getTransactionResultType())
+                .amount(transaction.getAmount())
+                .balanceSnapshot(transaction.getBalanceSnapshot())
+                .transactedAt(transaction.getTransactedAt())
+                .build();
+    }
+
+    public Transaction toEntity(Account account) {
+        return Transaction.builder()
+                .transactionType(transactionType)
+                .transactionResultType(transactionResultType)
+                .account(account)
+                .amount(amount)
+                .balanceSnapshot(balanceSnapshot)
+                .transactionId(transactionId)
+                .transactedAt(transactedAt)
+                .build();
+    }
+}
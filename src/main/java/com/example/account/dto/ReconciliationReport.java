@@ -0,0 +1,27 @@
+package com.example.account.dto;
+
+import com.example.account.type.ReconciliationStatus;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReconciliationReport {
+    private ReconciliationStatus status;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    private long totalChunks;
+    private long completedChunks;
+    private long reconciledAccounts;
+    private long replayedTransactions;
+
+    private long driftCount;
+    // 최대 account.reconciliation.max-reported-drifts 건까지만 담는다
+    private List<AccountDrift> drifts;
+}
@@ -0,0 +1,33 @@
+package com.example.account.dto;
+
+import jdk.jfr.Recording;
+import lombok.*;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RecordingStatus {
+    private long id;
+    private String name;
+    private String state;
+    private Instant startTime;
+    private Instant stopTime;
+    private long maxAgeSeconds;
+    private long maxSizeBytes;
+
+    public static RecordingStatus from(Recording recording) {
+        return RecordingStatus.builder()
+                .id(recording.getId())
+                .name(recording.getName())
+                .state(recording.getState().name())
+                .startTime(recording.getStartTime())
+                .stopTime(recording.getStopTime())
+                .maxAgeSeconds(recording.getMaxAge() == null ? 0L : recording.getMaxAge().getSeconds())
+                .maxSizeBytes(recording.getMaxSize())
+                .build();
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.account.dto;
+
+import com.example.account.domain.Transaction;
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * 거래 내역 keyset 페이지 위치 (마지막으로 본 거래의 transactedAt, id)
+ * 클라이언트에는 base64url 문자열로만 노출한다.
+ */
+@Getter
+@AllArgsConstructor
+public class TransactionCursor {
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime transactedAt;
+    private final Long id;
+
+    public static TransactionCursor of(Transaction transaction) {
+        return new TransactionCursor(transaction.getTransactedAt(), transaction.getId());
+    }
+
+    public String encode() {
+        String raw = transactedAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TransactionCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor),
+                    StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            return new TransactionCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new AccountException(ErrorCode.INVALID_REQUEST);
+        }
+    }
+}
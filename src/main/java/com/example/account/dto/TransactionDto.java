@@ -32,4 +32,17 @@ public class TransactionDto {
                 .transactedAt(transaction.getTransactedAt())
                 .build();
     }
+
+    // 거래 기록을 남길 수 없는 실패(계좌 없음, 락 실패 등)의 결과
+    public static TransactionDto unrecordedFailure(TransactionType transactionType,
+                                                   String accountNumber,
+                                                   Long amount) {
+        return TransactionDto.builder()
+                .accountNumber(accountNumber)
+                .transactionType(transactionType)
+                .transactionResultType(TransactionResultType.F)
+                .amount(amount)
+                .transactedAt(LocalDateTime.now())
+                .build();
+    }
 }
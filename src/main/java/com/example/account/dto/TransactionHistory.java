@@ -0,0 +1,37 @@
+package com.example.account.dto;
+
+import lombok.*;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class TransactionHistory {
+    /**
+     * {
+     *     "accountNumber":"1000000000",
+     *     "transactions":[{...}, {...}],
+     *     "nextCursor":"MjAyMi0wNi0wMVQxMjowMDowMHwxMjM"
+     * }
+     * 다음 페이지는 ?cursor={nextCursor} 로 조회한다.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Response {
+        private String accountNumber;
+        private List<QueryTransactionResponse> transactions;
+        private String nextCursor;
+
+        public static Response from(String accountNumber, TransactionPage transactionPage) {
+            return Response.builder()
+                    .accountNumber(accountNumber)
+                    .transactions(transactionPage.getTransactions().stream()
+                            .map(QueryTransactionResponse::from)
+                            .collect(Collectors.toList()))
+                    .nextCursor(transactionPage.getNextCursor())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.account.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * 거래 내역 한 페이지
+ * nextCursor 가 null 이면 마지막 페이지다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransactionPage {
+    private List<TransactionDto> transactions;
+    private String nextCursor;
+}
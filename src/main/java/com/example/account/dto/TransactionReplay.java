@@ -0,0 +1,21 @@
+package com.example.account.dto;
+
+import com.example.account.type.TransactionType;
+import lombok.*;
+
+/**
+ * 대사용 거래 한 건 (projection)
+ */
+@Getter
+@AllArgsConstructor
+public class TransactionReplay {
+    private final Long accountId;
+    private final TransactionType transactionType;
+    private final Long amount;
+    private final Long balanceSnapshot;
+
+    // 이 거래가 잔액에 더하는 값
+    public long delta() {
+        return transactionType == TransactionType.CANCEL ? amount : -amount;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.account.dto;
+
+import lombok.*;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+public class UseBalanceBatch {
+    /**
+     * {
+     *      "requests": [
+     *          {"userId":1, "accountNumber":"1000000000", "amount":1000},
+     *          {"userId":1, "accountNumber":"1000000001", "amount":2000}
+     *      ]
+     * }
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Request {
+        @Valid
+        @NotEmpty
+        @Size(max = 1000)
+        private List<UseBalance.Request> requests;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.account.profiling;
+
+import jdk.jfr.*;
+
+/**
+ * 요청 처리 단계 하나의 소요 시간 (jfr print --events com.example.account.Phase recording.jfr)
+ * 계좌번호 대신 해시를 남긴다.
+ */
+@Name("com.example.account.Phase")
+@Label("Account Phase")
+@Category({"Account"})
+@Description("Duration of one phase of an account request")
+@StackTrace(false)
+public class AccountPhaseEvent extends Event {
+    @Label("Phase")
+    String phase;
+
+    @Label("Account Number Hash")
+    int accountHash;
+
+    @Label("Outcome")
+    @Description("SUCCESS, ErrorCode name or exception class name")
+    String outcome;
+}
@@ -0,0 +1,103 @@
+package com.example.account.profiling;
+
+import com.example.account.exception.AccountException;
+import com.example.account.type.AccountPhase;
+
+import java.util.function.Supplier;
+
+/**
+ * 요청 처리 단계 계측 (JFR 이벤트, Server-Timing 헤더)
+ * 기록 중인 JFR recording 도 없고 Server-Timing 표본 요청도 아니면
+ * 아무것도 하지 않는 타이머를 돌려주므로 상시 호출해도 된다.
+ */
+public final class AccountPhases {
+    private static final String SUCCESS = "SUCCESS";
+
+    private AccountPhases() {
+    }
+
+    public static PhaseTimer start(AccountPhase phase, String accountNumber) {
+        AccountPhaseEvent event = new AccountPhaseEvent();
+        ServerTimings timings = ServerTimings.current();
+        boolean recording = event.isEnabled();
+        if (!recording && timings == null) {
+            return PhaseTimer.NOOP;
+        }
+        if (recording) {
+            event.begin();
+        }
+        return new PhaseTimer(phase, accountNumber, recording ? event : null, timings);
+    }
+
+    public static <T> T record(AccountPhase phase, String accountNumber, Supplier<T> work) {
+        PhaseTimer timer = start(phase, accountNumber);
+        try {
+            T result = work.get();
+            timer.success();
+            return result;
+        } catch (RuntimeException e) {
+            timer.fail(e);
+            throw e;
+        }
+    }
+
+    public static void run(AccountPhase phase, String accountNumber, Runnable work) {
+        record(phase, accountNumber, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * 처음 끝낸 결과만 남긴다. (OPTIMISTIC 재시도처럼 여러 번 끝낼 수 있다)
+     */
+    public static class PhaseTimer {
+        static final PhaseTimer NOOP = new PhaseTimer(null, null, null, null);
+
+        private final AccountPhase phase;
+        private final String accountNumber;
+        private final AccountPhaseEvent event;
+        private final ServerTimings timings;
+        private final long startedAt;
+        private boolean ended;
+
+        private PhaseTimer(AccountPhase phase, String accountNumber,
+                           AccountPhaseEvent event, ServerTimings timings) {
+            this.phase = phase;
+            this.accountNumber = accountNumber;
+            this.event = event;
+            this.timings = timings;
+            this.startedAt = timings == null ? 0L : System.nanoTime();
+        }
+
+        public void success() {
+            end(SUCCESS);
+        }
+
+        public void fail(Throwable t) {
+            end(t instanceof AccountException
+                    ? ((AccountException) t).getErrorCode().name()
+                    : t.getClass().getSimpleName());
+        }
+
+        private void end(String outcome) {
+            if (ended || (event == null && timings == null)) {
+                return;
+            }
+            ended = true;
+            if (timings != null) {
+                timings.add(phase.getServerTimingName(), System.nanoTime() - startedAt);
+            }
+            if (event == null) {
+                return;
+            }
+            event.end();
+            if (event.shouldCommit()) {
+                event.phase = phase.name();
+                event.accountHash = accountNumber == null ? 0 : accountNumber.hashCode();
+                event.outcome = outcome;
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.account.profiling;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 표본으로 고른 요청에 ServerTimings 를 붙이고 요청이 끝나면 뗀다.
+ * 헤더는 본문을 쓰기 직전에 ServerTimingAdvice 가 쓴다. (필터에서는 응답이 이미 커밋된 뒤다)
+ */
+public class ServerTimingFilter extends OncePerRequestFilter {
+    private final double sampleRate;
+
+    public ServerTimingFilter(double sampleRate) {
+        this.sampleRate = sampleRate;
+        ServerTimings.enable();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        ServerTimings.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ServerTimings.end();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.account.profiling;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 요청 하나의 Server-Timing 항목 (lock;dur=0.412, db-read;dur=1.020, total;dur=3.100)
+ * ServerTimingFilter 가 표본으로 고른 요청 스레드에만 붙는다.
+ * 같은 이름의 단계는 합산한다. (계좌 조회 + 거래 조회 = db-read)
+ */
+public final class ServerTimings {
+    public static final String HEADER_NAME = "Server-Timing";
+    private static final ThreadLocal<ServerTimings> CURRENT = new ThreadLocal<>();
+    // 필터가 없으면 ThreadLocal 조회도 하지 않는다
+    private static volatile boolean enabled;
+
+    private final long startedAt = System.nanoTime();
+    private final Map<String, Long> durations = new LinkedHashMap<>();
+
+    private ServerTimings() {
+    }
+
+    public static void enable() {
+        enabled = true;
+    }
+
+    public static ServerTimings begin() {
+        ServerTimings timings = new ServerTimings();
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    /**
+     * 요청 스레드의 항목을 다른 스레드에서 이어서 잰다. (SINGLE_WRITER shard 스레드, 끝나면 end)
+     * 요청 스레드는 그동안 기다리기만 하므로 두 스레드가 동시에 쓰지 않는다.
+     */
+    public static void attach(ServerTimings timings) {
+        CURRENT.set(timings);
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    public static ServerTimings current() {
+        return enabled ? CURRENT.get() : null;
+    }
+
+    void add(String name, long nanos) {
+        durations.merge(name, nanos, Long::sum);
+    }
+
+    public String toHeaderValue() {
+        StringBuilder header = new StringBuilder();
+        durations.forEach((name, nanos) -> append(header, name, nanos));
+        append(header, "total", System.nanoTime() - startedAt);
+        return header.toString();
+    }
+
+    private static void append(StringBuilder header, String name, long nanos) {
+        if (header.length() > 0) {
+            header.append(", ");
+        }
+        header.append(name).append(";dur=")
+                .append(String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0));
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.account.repository;
+
+import com.example.account.domain.Account;
+
+import java.util.Optional;
+
+/**
+ * 대기 시간을 호출마다 정하는 계좌 행 락
+ * (@QueryHints 는 상수만 받을 수 있어서 AccountRepository 에 조각으로 붙인다)
+ */
+public interface AccountLockRepository {
+    Optional<Account> findForUpdateByAccountNumber(String accountNumber, long lockTimeoutMillis);
+}
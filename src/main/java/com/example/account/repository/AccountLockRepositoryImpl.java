@@ -0,0 +1,26 @@
+package com.example.account.repository;
+
+import com.example.account.domain.Account;
+import lombok.RequiredArgsConstructor;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class AccountLockRepositoryImpl implements AccountLockRepository {
+    static final String LOCK_TIMEOUT_HINT = "javax.persistence.lock.timeout";
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Optional<Account> findForUpdateByAccountNumber(String accountNumber, long lockTimeoutMillis) {
+        return entityManager.createQuery(
+                        "select a from Account a where a.accountNumber = :accountNumber", Account.class)
+                .setParameter("accountNumber", accountNumber)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .setHint(LOCK_TIMEOUT_HINT, lockTimeoutMillis)
+                .getResultStream()
+                .findFirst();
+    }
+}
@@ -2,19 +2,89 @@ package com.example.account.repository;
 
 import com.example.account.domain.Account;
 import com.example.account.domain.AccountUser;
+import com.example.account.dto.AccountBalance;
+import com.example.account.dto.AccountInfo;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface AccountRepository extends JpaRepository<Account, Long> {
-    Optional<Account> findFirstByOrderByIdDesc();
+public interface AccountRepository extends JpaRepository<Account, Long>, AccountLockRepository {
+    // 계좌번호는 10자리 고정이라 문자열 정렬이 숫자 정렬과 같다
+    Optional<Account> findFirstByOrderByAccountNumberDesc();
 
     Integer countByAccountUser(AccountUser accountUser);
 
     Optional<Account> findByAccountNumber(String AccountNumber);
 
-    List<Account> findByAccountUser(AccountUser accountUser);
+    @Query("select new com.example.account.dto.AccountInfo(a.accountNumber, a.balance)"
+            + " from Account a where a.accountUser.id = :userId order by a.id")
+    List<AccountInfo> findAccountInfosByUserId(@Param("userId") Long userId);
+
+    List<Account> findByAccountNumberIn(Collection<String> accountNumbers);
+
+    // 저널 replay 에서 DB 에 있는 계좌 id 확인
+    @Query("select a.id from Account a where a.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 소유주, 상태, 잔액 조건을 만족할 때만 한 번의 UPDATE 로 차감한다.
+     * 갱신된 행 수가 0 이면 차감하지 않은 것이다.
+     * 실행 후 영속성 컨텍스트를 비우므로, 일괄 처리에서 쌓인 거래 INSERT 를 먼저 flush 한다.
+     * (UPDATE 대상이 account 라 Hibernate 가 transaction 테이블은 자동 flush 하지 않는다)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Account a" +
+            " set a.balance = a.balance - :amount," +
+            " a.version = a.version + 1," +
+            " a.updatedAt = :updatedAt" +
+            " where a.accountNumber = :accountNumber" +
+            " and a.accountUser.id = :userId" +
+            " and a.balance >= :amount" +
+            " and a.accountStatus = com.example.account.type.AccountStatus.IN_USE")
+    int useBalanceIfSufficient(@Param("accountNumber") String accountNumber,
+                               @Param("userId") Long userId,
+                               @Param("amount") Long amount,
+                               @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Account a" +
+            " set a.balance = a.balance + :amount," +
+            " a.version = a.version + 1," +
+            " a.updatedAt = :updatedAt" +
+            " where a.accountNumber = :accountNumber")
+    int addBalance(@Param("accountNumber") String accountNumber,
+                   @Param("amount") Long amount,
+                   @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * 메모리 원장(InMemoryBalanceLedger)의 잔액을 그대로 반영한다.
+     */
+    @Modifying
+    @Query("update Account a" +
+            " set a.balance = :balance," +
+            " a.version = a.version + 1," +
+            " a.updatedAt = :updatedAt" +
+            " where a.id = :id")
+    int updateBalance(@Param("id") Long id,
+                      @Param("balance") Long balance,
+                      @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Query("select min(a.id) from Account a")
+    Long findMinId();
+
+    @Query("select max(a.id) from Account a")
+    Long findMaxId();
+
+    @Query("select new com.example.account.dto.AccountBalance(a.id, a.accountNumber, a.balance, a.openingBalance)"
+            + " from Account a where a.id between :fromId and :toId")
+    List<AccountBalance> findBalancesByIdBetween(@Param("fromId") Long fromId,
+                                                 @Param("toId") Long toId);
 }
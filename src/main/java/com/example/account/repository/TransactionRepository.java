@@ -1,13 +1,97 @@
 package com.example.account.repository;
 
 import com.example.account.domain.Transaction;
+import com.example.account.dto.TransactionReplay;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+    int EXPORT_FETCH_SIZE = 1000;
+
+    // 조회 결과와 취소 검증 모두 계좌가 필요하므로 함께 가져온다
+    @EntityGraph(attributePaths = "account")
     Optional<Transaction> findByTransactionId(String transactionId);
+
+    // 저널 replay 에서 DB 에 이미 있는 거래 id 확인
+    @Query("select t.transactionId from Transaction t where t.transactionId in :transactionIds")
+    List<String> findExistingTransactionIds(@Param("transactionIds") Collection<String> transactionIds);
+
+    /**
+     * 계좌 거래 내역 첫 페이지 (최신순)
+     * 페이지 크기는 pageable 의 size 만 사용한다. (offset 은 항상 0)
+     */
+    @Query("select t from Transaction t join fetch t.account a"
+            + " where a.id = :accountId"
+            + " and (:type is null or t.transactionType = :type)"
+            + " and (:result is null or t.transactionResultType = :result)"
+            + " order by t.transactedAt desc, t.id desc")
+    List<Transaction> findHistory(@Param("accountId") Long accountId,
+                                  @Param("type") TransactionType type,
+                                  @Param("result") TransactionResultType result,
+                                  Pageable pageable);
+
+    /**
+     * 계좌 거래 내역 다음 페이지
+     * 마지막으로 본 (transactedAt, id) 이후부터 인덱스를 바로 찾아 읽으므로
+     * 몇 번째 페이지든 비용이 같다.
+     */
+    @Query("select t from Transaction t join fetch t.account a"
+            + " where a.id = :accountId"
+            + " and (:type is null or t.transactionType = :type)"
+            + " and (:result is null or t.transactionResultType = :result)"
+            + " and (t.transactedAt < :transactedAt"
+            + " or (t.transactedAt = :transactedAt and t.id < :id))"
+            + " order by t.transactedAt desc, t.id desc")
+    List<Transaction> findHistoryAfter(@Param("accountId") Long accountId,
+                                       @Param("type") TransactionType type,
+                                       @Param("result") TransactionResultType result,
+                                       @Param("transactedAt") LocalDateTime transactedAt,
+                                       @Param("id") Long id,
+                                       Pageable pageable);
+
+    /**
+     * 기간별 거래 내보내기 (transactedAt 이상 ~ 미만)
+     * 결과를 한 번에 올리지 않고 fetch size 단위로 읽는다.
+     * 트랜잭션 안에서 소비하고 반드시 close 해야 한다.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("select t from Transaction t join fetch t.account"
+            + " where t.transactedAt >= :from and t.transactedAt < :to"
+            + " order by t.transactedAt, t.id")
+    Stream<Transaction> streamByTransactedAt(@Param("from") LocalDateTime from,
+                                             @Param("to") LocalDateTime to);
+
+    /**
+     * 계좌 id 구간의 성공 거래를 계좌별 발생 순서대로 조회 (잔액 대사)
+     */
+    @Query("select new com.example.account.dto.TransactionReplay("
+            + "t.account.id, t.transactionType, t.amount, t.balanceSnapshot)"
+            + " from Transaction t"
+            + " where t.account.id between :fromId and :toId"
+            + " and t.transactionResultType = com.example.account.type.TransactionResultType.S"
+            + " order by t.account.id, t.transactedAt, t.id")
+    List<TransactionReplay> findReplayByAccountIdBetween(@Param("fromId") Long fromId,
+                                                        @Param("toId") Long toId);
 }
@@ -0,0 +1,130 @@
+package com.example.account.service;
+
+import com.example.account.domain.AccountUser;
+import com.example.account.dto.AccountSummary;
+import com.example.account.repository.AccountRepository;
+import com.example.account.repository.AccountUserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * 사용자 / 계좌 요약 캐시
+ * 소유주 확인과 상태 확인을 DB 조회 없이 하기 위해 사용한다.
+ * 계좌 소유주와 계좌번호는 바뀌지 않고 상태는 IN_USE -> UNREGISTERED 로만 바뀌므로,
+ * 해지 시점에 무효화하고 redis topic 으로 다른 노드에도 알린다.
+ * 사용자는 수정/삭제 API 가 없어 바뀌지 않으므로 expire-after-write 로만 갱신한다.
+ * 잔액은 캐시하지 않는다.
+ */
+@Slf4j
+@Component
+public class AccountCache {
+    static final String ACCOUNT_TOPIC = "ACCOUNT_CACHE_INVALIDATION";
+
+    private final AccountUserRepository accountUserRepository;
+    private final AccountRepository accountRepository;
+    private final RedissonClient redissonClient;
+
+    private final Cache<Long, AccountUser> users;
+    private final Cache<String, AccountSummary> accounts;
+
+    private int accountListenerId = -1;
+
+    public AccountCache(
+            AccountUserRepository accountUserRepository,
+            AccountRepository accountRepository,
+            RedissonClient redissonClient,
+            @Value("${account.cache.account.maximum-size:100000}") long maximumSize,
+            @Value("${account.cache.account.expire-after-write:30m}") Duration expireAfterWrite,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        this.accountUserRepository = accountUserRepository;
+        this.accountRepository = accountRepository;
+        this.redissonClient = redissonClient;
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        this.accounts = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        meterRegistry.ifAvailable(registry -> {
+            CaffeineCacheMetrics.monitor(registry, users, "accountUser");
+            CaffeineCacheMetrics.monitor(registry, accounts, "accountSummary");
+        });
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        accountListenerId = redissonClient.getTopic(ACCOUNT_TOPIC)
+                .addListener(String.class, (channel, accountNumber) ->
+                        accounts.invalidate(accountNumber));
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        if (accountListenerId != -1) {
+            redissonClient.getTopic(ACCOUNT_TOPIC).removeListener(accountListenerId);
+        }
+    }
+
+    // 없는 사용자/계좌는 캐시하지 않는다 (이후 생성될 수 있으므로)
+    public Optional<AccountUser> getUser(Long userId) {
+        return Optional.ofNullable(users.get(userId,
+                id -> accountUserRepository.findById(id).orElse(null)));
+    }
+
+    public Optional<AccountSummary> getAccount(String accountNumber) {
+        return Optional.ofNullable(accounts.get(accountNumber,
+                number -> accountRepository.findByAccountNumber(number)
+                        .map(AccountSummary::fromEntity)
+                        .orElse(null)));
+    }
+
+    public void evictAccount(String accountNumber) {
+        afterCommit(() -> {
+            accounts.invalidate(accountNumber);
+            publish(ACCOUNT_TOPIC, accountNumber);
+        });
+    }
+
+    // 커밋 전에 지우면 다른 요청이 변경 전 값을 다시 캐시할 수 있다
+    private static void afterCommit(Runnable runnable) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            runnable.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        runnable.run();
+                    }
+                });
+    }
+
+    private void publish(String topic, Object message) {
+        try {
+            redissonClient.getTopic(topic).publish(message);
+        } catch (Exception e) {
+            // 다른 노드는 expire-after-write 이후에 갱신된다
+            log.error("Cache invalidation publish failed. {}", topic, e);
+        }
+    }
+}
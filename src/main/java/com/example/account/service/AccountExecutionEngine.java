@@ -0,0 +1,119 @@
+package com.example.account.service;
+
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 계좌별 단일 작성자 실행기
+ * 계좌번호 해시로 고정된 단일 스레드 shard 를 골라 작업을 넣는다.
+ * 한 계좌의 작업은 항상 같은 스레드에서 들어온 순서대로 실행되므로 락이 필요 없다.
+ * shard 별 대기열 길이는 account.single_writer.queue.depth (shard 태그) 로 노출한다.
+ */
+@Slf4j
+@Component
+public class AccountExecutionEngine {
+    private final ThreadPoolExecutor[] shards;
+
+    public AccountExecutionEngine(
+            @Value("${account.engine.shards:0}") int shardCount,
+            @Value("${account.engine.queue-capacity:1000}") int queueCapacity,
+            MeterRegistry meterRegistry
+    ) {
+        // 0 이하이면 코어 수만큼 shard 를 둔다
+        int count = shardCount > 0 ? shardCount : Runtime.getRuntime().availableProcessors();
+        this.shards = new ThreadPoolExecutor[count];
+        for (int i = 0; i < count; i++) {
+            shards[i] = new ThreadPoolExecutor(1, 1,
+                    0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity),
+                    new ShardThreadFactory(i),
+                    new ThreadPoolExecutor.AbortPolicy());
+            Gauge.builder("account.single_writer.queue.depth", shards[i], shard -> shard.getQueue().size())
+                    .description("Tasks waiting in the single-writer shard queue")
+                    .tag("shard", String.valueOf(i))
+                    .register(meterRegistry);
+        }
+    }
+
+    public <T> CompletableFuture<T> submit(String accountNumber, AccountTask<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            shards[shardIndex(accountNumber)].execute(() -> {
+                try {
+                    future.complete(task.call());
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.error("======Account engine queue is full=====");
+            future.completeExceptionally(
+                    new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK));
+        }
+        return future;
+    }
+
+    public int shardIndex(String accountNumber) {
+        return Math.floorMod(accountNumber.hashCode(), shards.length);
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    public int getQueueDepth(int shard) {
+        return shards[shard].getQueue().size();
+    }
+
+    public int[] getQueueDepths() {
+        int[] depths = new int[shards.length];
+        for (int i = 0; i < shards.length; i++) {
+            depths[i] = getQueueDepth(i);
+        }
+        return depths;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        for (ThreadPoolExecutor shard : shards) {
+            shard.shutdown();
+        }
+        for (ThreadPoolExecutor shard : shards) {
+            if (!shard.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.warn("Account engine shard did not terminate in time");
+                shard.shutdownNow();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface AccountTask<T> {
+        T call() throws Throwable;
+    }
+
+    private static class ShardThreadFactory implements ThreadFactory {
+        private final AtomicInteger sequence = new AtomicInteger();
+        private final int shard;
+
+        private ShardThreadFactory(int shard) {
+            this.shard = shard;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable,
+                    "account-engine-" + shard + "-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.account.service;
+
+import com.example.account.type.LockType;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 계좌 락과 거래 결과 지표 (/actuator/prometheus)
+ * 요청마다 registry 를 조회하지 않도록 태그 조합별 meter 를 미리 등록해 둔다.
+ * 히스토그램 여부는 management.metrics.distribution 설정을 따른다.
+ */
+@Component
+public class AccountMetrics {
+    private final Map<LockType, Timer> lockWaitTimers = new EnumMap<>(LockType.class);
+    private final Map<LockType, Timer> lockHoldTimers = new EnumMap<>(LockType.class);
+    private final Map<LockType, Counter> lockFailureCounters = new EnumMap<>(LockType.class);
+    private final Map<TransactionType, Map<TransactionResultType, Counter>> transactionCounters =
+            new EnumMap<>(TransactionType.class);
+
+    public AccountMetrics(MeterRegistry meterRegistry) {
+        for (LockType lockType : LockType.values()) {
+            if (lockType == LockType.DEFAULT) {
+                continue;
+            }
+            lockWaitTimers.put(lockType, Timer.builder("account.lock.wait")
+                    .description("Time from lock request to lock acquisition")
+                    .tag("lock", lockType.name())
+                    .register(meterRegistry));
+            lockHoldTimers.put(lockType, Timer.builder("account.lock.hold")
+                    .description("Time the account lock is held")
+                    .tag("lock", lockType.name())
+                    .register(meterRegistry));
+            lockFailureCounters.put(lockType, Counter.builder("account.lock.failures")
+                    .description("Lock acquisitions rejected with ACCOUNT_TRANSACTION_LOCK")
+                    .tag("lock", lockType.name())
+                    .register(meterRegistry));
+        }
+
+        for (TransactionType transactionType : TransactionType.values()) {
+            Map<TransactionResultType, Counter> counters = new EnumMap<>(TransactionResultType.class);
+            for (TransactionResultType resultType : TransactionResultType.values()) {
+                counters.put(resultType, Counter.builder("account.transactions")
+                        .description("Recorded transactions by type and result")
+                        .tag("type", transactionType.name())
+                        .tag("result", resultType.name())
+                        .register(meterRegistry));
+            }
+            transactionCounters.put(transactionType, counters);
+        }
+    }
+
+    public void recordLockWait(LockType lockType, long nanos) {
+        lockWaitTimers.get(lockType).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordLockHold(LockType lockType, long nanos) {
+        lockHoldTimers.get(lockType).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordLockFailure(LockType lockType) {
+        lockFailureCounters.get(lockType).increment();
+    }
+
+    public void recordTransaction(TransactionType transactionType,
+                                  TransactionResultType transactionResultType) {
+        transactionCounters.get(transactionType).get(transactionResultType).increment();
+    }
+
+    /**
+     * 롤백되거나 OPTIMISTIC 재시도로 다시 실행된 거래를 세지 않도록 커밋된 뒤에 센다.
+     * DB 트랜잭션 밖이면 바로 센다.
+     */
+    public void recordTransactionAfterCommit(TransactionType transactionType,
+                                             TransactionResultType transactionResultType) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            recordTransaction(transactionType, transactionResultType);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        recordTransaction(transactionType, transactionResultType);
+                    }
+                });
+    }
+}
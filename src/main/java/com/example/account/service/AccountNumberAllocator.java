@@ -0,0 +1,103 @@
+package com.example.account.service;
+
+import com.example.account.domain.Account;
+import com.example.account.exception.AccountException;
+import com.example.account.repository.AccountRepository;
+import com.example.account.type.ErrorCode;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RAtomicLong;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 계좌번호 발급
+ * 1. redis 카운터를 INCRBY 로 blockSize 만큼 올려서 번호 구간을 예약하고
+ * 2. 예약한 구간은 노드 안에서 AtomicLong 으로 나눠준다.
+ * 카운터가 없으면 DB 의 가장 큰 계좌번호로 한 번만 초기화한다.
+ */
+@Slf4j
+@Component
+public class AccountNumberAllocator {
+    static final long FIRST_ACCOUNT_NUMBER = 1_000_000_000L;
+    static final long LAST_ACCOUNT_NUMBER = 9_999_999_999L;
+    private static final String COUNTER_KEY = "ACNO:SEQ";
+
+    private final RedissonClient redissonClient;
+    private final AccountRepository accountRepository;
+    private final long blockSize;
+
+    private final AtomicReference<Block> block = new AtomicReference<>(Block.EMPTY);
+    private final ReentrantLock refillLock = new ReentrantLock();
+
+    public AccountNumberAllocator(
+            RedissonClient redissonClient,
+            AccountRepository accountRepository,
+            @Value("${account.account-number.block-size:100}") long blockSize) {
+        this.redissonClient = redissonClient;
+        this.accountRepository = accountRepository;
+        this.blockSize = blockSize;
+    }
+
+    public String next() {
+        while (true) {
+            Block current = block.get();
+            long number = current.next.getAndIncrement();
+            if (number <= current.last) {
+                return String.valueOf(number);
+            }
+            refill(current);
+        }
+    }
+
+    private void refill(Block exhausted) {
+        refillLock.lock();
+        try {
+            // 다른 스레드가 이미 새 구간을 받아왔으면 그대로 쓴다
+            if (block.get() == exhausted) {
+                block.set(reserve());
+            }
+        } finally {
+            refillLock.unlock();
+        }
+    }
+
+    private Block reserve() {
+        RAtomicLong counter = redissonClient.getAtomicLong(COUNTER_KEY);
+        if (!counter.isExists()) {
+            long seed = accountRepository.findFirstByOrderByAccountNumberDesc()
+                    .map(Account::getAccountNumber)
+                    .map(Long::parseLong)
+                    .orElse(FIRST_ACCOUNT_NUMBER - 1);
+            // 여러 노드가 동시에 초기화해도 한 번만 반영된다
+            counter.compareAndSet(0L, seed);
+        }
+
+        long last = counter.addAndGet(blockSize);
+        long first = last - blockSize + 1;
+        if (last > LAST_ACCOUNT_NUMBER) {
+            if (first > LAST_ACCOUNT_NUMBER) {
+                throw new AccountException(ErrorCode.ACCOUNT_NUMBER_EXHAUSTED);
+            }
+            last = LAST_ACCOUNT_NUMBER;
+        }
+        log.debug("Reserved account numbers {} ~ {}", first, last);
+        return new Block(first, last);
+    }
+
+    private static class Block {
+        private static final Block EMPTY = new Block(1L, 0L);
+
+        private final AtomicLong next;
+        private final long last;
+
+        private Block(long first, long last) {
+            this.next = new AtomicLong(first);
+            this.last = last;
+        }
+    }
+}
@@ -3,55 +3,76 @@ package com.example.account.service;
 import com.example.account.domain.Account;
 import com.example.account.domain.AccountUser;
 import com.example.account.dto.AccountDto;
+import com.example.account.dto.AccountInfo;
 import com.example.account.exception.AccountException;
+import com.example.account.profiling.AccountPhases;
 import com.example.account.repository.AccountRepository;
 import com.example.account.repository.AccountUserRepository;
+import com.example.account.type.AccountPhase;
 import com.example.account.type.AccountStatus;
 import com.example.account.type.ErrorCode;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
 import javax.transaction.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
 
 import static com.example.account.type.ErrorCode.*;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class AccountService {
+    private static final int MAX_ACCOUNT_NUMBER_ATTEMPTS = 5;
+
     private final AccountRepository accountRepository;
     private final AccountUserRepository accountUserRepository;
+    private final AccountNumberAllocator accountNumberAllocator;
+    private final AccountCache accountCache;
+    private final ObjectProvider<BalanceLedger> balanceLedger;
 
     /**
      * 사용자가 있는지 조회
      * 계좌의 번호를 생성하고
      * 계좌를 저장하고, 그 정보를 넘긴다.
+     * 번호 중복은 미리 조회하지 않고 account_number unique 제약으로 확인한다.
+     * 저장이 실패하면 그 저장만 롤백되도록 메서드 전체를 트랜잭션으로 묶지 않는다.
      */
-    @Transactional
     public AccountDto createAccount(Long userId, Long initialBalance) {
-        AccountUser accountUser = accountUserRepository.findById(userId)
-                .orElseThrow(() -> new AccountException(USER_NOT_FOUND));
-
-        ValidateCreateAccount(accountUser);
-
-        String newAccountNumber = accountRepository.findFirstByOrderByIdDesc()
-                .map(account -> (Integer.parseInt(account.getAccountNumber())) + 1 + "")
-                .orElse("1000000000");
-
-        Account account = accountRepository.save(
-                Account.builder()
-                        .accountUser(accountUser)
-                        .accountStatus(AccountStatus.IN_USE)
-                        .accountNumber(newAccountNumber)
-                        .balance(initialBalance)
-                        .registeredAt(LocalDateTime.now())
-                        .build()
-        );
-
-        return AccountDto.fromEntity(account);
+        AccountUser accountUser = AccountPhases.record(AccountPhase.USER_LOOKUP, null, () ->
+                accountUserRepository.findById(userId)
+                        .orElseThrow(() -> new AccountException(USER_NOT_FOUND)));
+
+        AccountPhases.run(AccountPhase.VALIDATION, null, () ->
+                ValidateCreateAccount(accountUser));
+
+        // 예약한 번호가 이미 쓰였으면(카운터 유실, 다른 노드) 다음 번호로 다시 시도
+        for (int attempt = 0; attempt < MAX_ACCOUNT_NUMBER_ATTEMPTS; attempt++) {
+            String newAccountNumber = accountNumberAllocator.next();
+            try {
+                Account account = AccountPhases.record(AccountPhase.ACCOUNT_INSERT, newAccountNumber, () ->
+                        accountRepository.saveAndFlush(
+                                Account.builder()
+                                        .accountUser(accountUser)
+                                        .accountStatus(AccountStatus.IN_USE)
+                                        .accountNumber(newAccountNumber)
+                                        .balance(initialBalance)
+                                        .openingBalance(initialBalance)
+                                        .registeredAt(LocalDateTime.now())
+                                        .build()
+                        ));
+
+                return AccountDto.fromEntity(account);
+            } catch (DataIntegrityViolationException e) {
+                log.warn("Account number already in use. accountNumber : {}", newAccountNumber);
+            }
+        }
+        throw new AccountException(ACCOUNT_NUMBER_EXHAUSTED);
     }
 
     private void ValidateCreateAccount(AccountUser accountUser) {
@@ -70,18 +91,29 @@ public class AccountService {
 
     @Transactional
     public AccountDto deleteAccount(Long userId, String accountNumber){
-        AccountUser accountUser = accountUserRepository.findById(userId)
-                .orElseThrow(() -> new AccountException(USER_NOT_FOUND));
+        // 원장의 메모리 잔액과 상태가 DB 와 어긋나지 않도록 원장 계좌는 설정에서 먼저 빼야 한다
+        BalanceLedger ledger = balanceLedger.getIfAvailable();
+        if (ledger != null && ledger.manages(accountNumber)) {
+            throw new AccountException(LEDGER_ACCOUNT_NOT_DELETABLE);
+        }
+
+        AccountUser accountUser = AccountPhases.record(AccountPhase.USER_LOOKUP, accountNumber, () ->
+                accountUserRepository.findById(userId)
+                        .orElseThrow(() -> new AccountException(USER_NOT_FOUND)));
 
-        Account account = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND));
+        Account account = AccountPhases.record(AccountPhase.ACCOUNT_LOOKUP, accountNumber, () ->
+                accountRepository.findByAccountNumber(accountNumber)
+                        .orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND)));
 
-        validateDeleteAccount(accountUser, account);
+        AccountPhases.run(AccountPhase.VALIDATION, accountNumber, () ->
+                validateDeleteAccount(accountUser, account));
 
         account.setAccountStatus(AccountStatus.UNREGISTERED);
         account.setUnregisteredAt(LocalDateTime.now());
 
-        accountRepository.save(account);
+        AccountPhases.run(AccountPhase.ACCOUNT_UPDATE, accountNumber, () ->
+                accountRepository.save(account));
+        accountCache.evictAccount(accountNumber);
 
         return AccountDto.fromEntity(account);
     }
@@ -100,15 +132,17 @@ public class AccountService {
         }
     }
 
+    /**
+     * 계좌번호와 잔액만 필요한 목록 조회
+     * 엔티티를 읽지 않고 projection 쿼리 한 번으로 처리한다.
+     */
     @Transactional
-    public List<AccountDto> getAccountsByUserId(Long userId) {
-        AccountUser accountUser = accountUserRepository.findById(userId)
-                .orElseThrow(() -> new AccountException(USER_NOT_FOUND));
-
-        List<Account> accounts = accountRepository.findByAccountUser(accountUser);
+    public List<AccountInfo> getAccountInfosByUserId(Long userId) {
+        AccountPhases.run(AccountPhase.USER_LOOKUP, null, () ->
+                accountCache.getUser(userId)
+                        .orElseThrow(() -> new AccountException(USER_NOT_FOUND)));
 
-        return accounts.stream()
-                .map(AccountDto::fromEntity)
-                .collect(Collectors.toList());
+        return AccountPhases.record(AccountPhase.ACCOUNT_LOOKUP, null, () ->
+                accountRepository.findAccountInfosByUserId(userId));
     }
 }
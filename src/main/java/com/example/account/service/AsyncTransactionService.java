@@ -0,0 +1,157 @@
+package com.example.account.service;
+
+import com.example.account.dto.TransactionDto;
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import com.example.account.type.LockType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 잔액 사용/취소의 비동기 실행
+ * 1. REDIS 락은 Redisson 비동기 API 로 기다리므로 대기 중에는 어떤 스레드도 잡지 않는다.
+ * 2. 락을 얻으면 DB 작업은 크기가 정해진 전용 executor 에서 실행한다.
+ * 3. executor 대기열이 가득 차면 바로 실패시켜서 요청이 쌓이지 않게 한다.
+ * REDIS 외의 락 전략은 락 대기까지 전용 executor 에서 실행한다.
+ */
+@Slf4j
+@Service
+public class AsyncTransactionService {
+    private static final long TRY_LOCK_TIME = 1000L;
+
+    private final TransactionService transactionService;
+    private final FailedTransactionRecorder failedTransactionRecorder;
+    private final LockStrategyRegistry lockStrategyRegistry;
+    private final LockService lockService;
+    private final ObjectProvider<BalanceLedger> balanceLedger;
+    private final AccountMetrics accountMetrics;
+    private final ThreadPoolExecutor executor;
+
+    public AsyncTransactionService(
+            TransactionService transactionService,
+            FailedTransactionRecorder failedTransactionRecorder,
+            LockStrategyRegistry lockStrategyRegistry,
+            LockService lockService,
+            ObjectProvider<BalanceLedger> balanceLedger,
+            AccountMetrics accountMetrics,
+            @Value("${account.async.pool-size:16}") int poolSize,
+            @Value("${account.async.queue-capacity:1000}") int queueCapacity
+    ) {
+        this.transactionService = transactionService;
+        this.failedTransactionRecorder = failedTransactionRecorder;
+        this.lockStrategyRegistry = lockStrategyRegistry;
+        this.lockService = lockService;
+        this.balanceLedger = balanceLedger;
+        this.accountMetrics = accountMetrics;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable,
+                            "async-transaction-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, pool) -> {
+                    throw new AccountException(ErrorCode.ASYNC_EXECUTOR_BUSY);
+                });
+    }
+
+    public CompletableFuture<TransactionDto> useBalance(Long userId, String accountNumber, Long amount) {
+        BalanceLedger ledger = balanceLedger.getIfAvailable();
+        if (ledger != null && ledger.manages(accountNumber)) {
+            return supply(() -> ledger.useBalance(userId, accountNumber, amount));
+        }
+
+        return withLock(accountNumber, () -> {
+            try {
+                return transactionService.useBalance(userId, accountNumber, amount);
+            } catch (AccountException e) {
+                log.error("Failed to use balance. ");
+                failedTransactionRecorder.recordUse(accountNumber, amount);
+                throw e;
+            }
+        });
+    }
+
+    public CompletableFuture<TransactionDto> cancelBalance(String transactionId, String accountNumber, Long amount) {
+        BalanceLedger ledger = balanceLedger.getIfAvailable();
+        if (ledger != null && ledger.manages(accountNumber)) {
+            return supply(() -> ledger.cancelBalance(transactionId, accountNumber, amount));
+        }
+
+        return withLock(accountNumber, () -> {
+            try {
+                return transactionService.cancelBalance(transactionId, accountNumber, amount);
+            } catch (AccountException e) {
+                log.error("Failed to cancel balance. ");
+                failedTransactionRecorder.recordCancel(accountNumber, amount);
+                throw e;
+            }
+        });
+    }
+
+    public int getQueuedCount() {
+        return executor.getQueue().size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> CompletableFuture<T> withLock(String accountNumber, Supplier<T> work) {
+        LockStrategy lockStrategy = lockStrategyRegistry.resolve(LockType.DEFAULT);
+        if (lockStrategy.getType() != LockType.REDIS) {
+            return supply(() -> executeWithLock(lockStrategy, accountNumber, work));
+        }
+
+        long requestedAt = System.nanoTime();
+        return lockService.lockAsync(accountNumber, TRY_LOCK_TIME)
+                .whenComplete((ownerId, e) -> {
+                    if (e == null) {
+                        accountMetrics.recordLockWait(LockType.REDIS, System.nanoTime() - requestedAt);
+                    } else if (e.getCause() instanceof AccountException
+                            && ((AccountException) e.getCause()).getErrorCode() == ErrorCode.ACCOUNT_TRANSACTION_LOCK) {
+                        accountMetrics.recordLockFailure(LockType.REDIS);
+                    }
+                })
+                .thenCompose(ownerId -> {
+                    long acquiredAt = System.nanoTime();
+                    return supply(work)
+                            .whenComplete((result, e) -> {
+                                accountMetrics.recordLockHold(LockType.REDIS, System.nanoTime() - acquiredAt);
+                                lockService.unlockAsync(accountNumber, ownerId);
+                            });
+                });
+    }
+
+    private <T> CompletableFuture<T> supply(Supplier<T> work) {
+        try {
+            return CompletableFuture.supplyAsync(work, executor);
+        } catch (AccountException e) {
+            // executor 가 가득 찬 경우
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T executeWithLock(LockStrategy lockStrategy, String accountNumber, Supplier<T> work) {
+        try {
+            return (T) lockStrategy.executeWithLock(accountNumber, TRY_LOCK_TIME, work::get);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+}
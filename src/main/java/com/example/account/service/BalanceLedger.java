@@ -0,0 +1,30 @@
+package com.example.account.service;
+
+import com.example.account.dto.TransactionDto;
+import com.example.account.dto.UseBalance;
+
+import java.util.List;
+
+/**
+ * 잔액을 메모리에서 관리하는 계좌의 원장 (account.ledger.enabled 로 사용 여부를 정한다)
+ * 원장이 관리하는 계좌는 계좌 락과 DB 를 거치지 않고 원장에서 처리한다.
+ * 원장을 쓰지 않으면 빈이 없으므로 ObjectProvider 로 주입받는다.
+ */
+public interface BalanceLedger {
+    boolean manages(String accountNumber);
+
+    /**
+     * 실패하면 실패 거래를 원장에 기록하고 예외를 던진다.
+     */
+    TransactionDto useBalance(Long userId, String accountNumber, Long amount);
+
+    /**
+     * 실패하면 실패 거래를 원장에 기록하고 예외를 던진다.
+     */
+    TransactionDto cancelBalance(String transactionId, String accountNumber, Long amount);
+
+    /**
+     * 건별 실패는 실패 거래로 기록하고 다음 건을 계속 처리한다.
+     */
+    List<TransactionDto> useBalances(String accountNumber, List<UseBalance.Request> requests);
+}
@@ -0,0 +1,145 @@
+package com.example.account.service;
+
+import com.example.account.dto.FailedTransaction;
+import com.example.account.type.TransactionType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 실패 거래 기록기
+ * 비동기 모드에서는 실패 건을 메모리 큐에 넣고 바로 반환해서 요청이 계좌 락을 오래 잡지 않도록 한다.
+ * 큐는 주기적으로, 또는 flush-threshold 이상 쌓이면 batch 로 저장한다.
+ * 큐가 가득 차면 기록을 버리고 drop 건수만 올린다.
+ * 큐 길이와 drop 건수는 account.failed_transactions.queue.depth, account.failed_transactions.dropped 로 노출한다.
+ */
+@Slf4j
+@Component
+public class FailedTransactionRecorder {
+    private final TransactionService transactionService;
+    private final boolean async;
+    private final int flushThreshold;
+    private final int batchSize;
+
+    private final BlockingQueue<FailedTransaction> queue;
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final Counter droppedCounter;
+    private final AtomicLong flushedCount = new AtomicLong();
+    private final ExecutorService flushExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "failed-transaction-flusher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public FailedTransactionRecorder(
+            TransactionService transactionService,
+            MeterRegistry meterRegistry,
+            @Value("${account.failed-transaction.async:true}") boolean async,
+            @Value("${account.failed-transaction.queue-capacity:10000}") int queueCapacity,
+            @Value("${account.failed-transaction.flush-threshold:500}") int flushThreshold,
+            @Value("${account.failed-transaction.batch-size:500}") int batchSize
+    ) {
+        this.transactionService = transactionService;
+        this.async = async;
+        this.flushThreshold = flushThreshold;
+        this.batchSize = batchSize;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.droppedCounter = Counter.builder("account.failed_transactions.dropped")
+                .description("Failed transactions dropped because the queue was full or the flush failed")
+                .register(meterRegistry);
+        Gauge.builder("account.failed_transactions.queue.depth", queue, BlockingQueue::size)
+                .description("Failed transactions waiting to be flushed")
+                .register(meterRegistry);
+    }
+
+    public void recordUse(String accountNumber, Long amount) {
+        if (!async) {
+            transactionService.saveFailedUseTransaction(accountNumber, amount);
+            return;
+        }
+        enqueue(TransactionType.USE, accountNumber, amount);
+    }
+
+    public void recordCancel(String accountNumber, Long amount) {
+        if (!async) {
+            transactionService.saveFailedCancelTransaction(accountNumber, amount);
+            return;
+        }
+        enqueue(TransactionType.CANCEL, accountNumber, amount);
+    }
+
+    private void enqueue(TransactionType transactionType, String accountNumber, Long amount) {
+        boolean offered = queue.offer(FailedTransaction.builder()
+                .transactionType(transactionType)
+                .accountNumber(accountNumber)
+                .amount(amount)
+                .failedAt(LocalDateTime.now())
+                .build());
+
+        if (!offered) {
+            droppedCounter.increment();
+            log.error("======Failed transaction queue is full, dropped=====");
+            return;
+        }
+
+        if (queue.size() >= flushThreshold && flushRequested.compareAndSet(false, true)) {
+            flushExecutor.execute(() -> {
+                flushRequested.set(false);
+                flush();
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${account.failed-transaction.flush-interval-millis:1000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<FailedTransaction> batch = new ArrayList<>(batchSize);
+            while (queue.drainTo(batch, batchSize) > 0) {
+                try {
+                    transactionService.saveFailedTransactions(batch);
+                    flushedCount.addAndGet(batch.size());
+                } catch (Exception e) {
+                    log.error("Failed to flush failed transactions", e);
+                    droppedCounter.increment(batch.size());
+                }
+                batch.clear();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        flushExecutor.shutdown();
+        flushExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        flush();
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public long getDroppedCount() {
+        return (long) droppedCounter.count();
+    }
+
+    public long getFlushedCount() {
+        return flushedCount.get();
+    }
+}
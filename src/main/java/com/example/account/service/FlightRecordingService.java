@@ -0,0 +1,164 @@
+package com.example.account.service;
+
+import com.example.account.dto.RecordingStatus;
+import com.example.account.exception.AccountException;
+import com.example.account.profiling.AccountPhaseEvent;
+import com.example.account.type.ErrorCode;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 요청 시 켜고 끄는 JFR 기록
+ * 1. account.profiling.settings(default 는 오버헤드 1% 안팎) 에 AccountPhaseEvent 를 더해 기록한다.
+ * 2. max-age / max-size 만큼만 디스크에 남기므로 계속 켜 둘 수 있다. (start-on-boot)
+ * 3. dump 는 기록 중이거나 멈춘 기록을 임시 파일로 떠서 내려보낸다.
+ */
+@Slf4j
+@Service
+public class FlightRecordingService {
+    private static final String RECORDING_NAME = "account";
+
+    private final String settings;
+    private final Duration maxAge;
+    private final DataSize maxSize;
+    private final boolean startOnBoot;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private Recording recording;
+
+    public FlightRecordingService(
+            @Value("${account.profiling.settings:default}") String settings,
+            @Value("${account.profiling.max-age:30m}") Duration maxAge,
+            @Value("${account.profiling.max-size:100MB}") DataSize maxSize,
+            @Value("${account.profiling.start-on-boot:false}") boolean startOnBoot
+    ) {
+        this.settings = settings;
+        this.maxAge = maxAge;
+        this.maxSize = maxSize;
+        this.startOnBoot = startOnBoot;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startOnBoot() {
+        if (startOnBoot) {
+            start();
+        }
+    }
+
+    public RecordingStatus start() {
+        lock.lock();
+        try {
+            if (recording != null && recording.getState() == RecordingState.RUNNING) {
+                throw new AccountException(ErrorCode.RECORDING_ALREADY_RUNNING);
+            }
+            if (recording != null) {
+                recording.close();
+            }
+
+            Recording newRecording = new Recording(Configuration.getConfiguration(settings).getSettings());
+            newRecording.setName(RECORDING_NAME);
+            newRecording.enable(AccountPhaseEvent.class).withoutStackTrace();
+            newRecording.setToDisk(true);
+            newRecording.setMaxAge(maxAge);
+            newRecording.setMaxSize(maxSize.toBytes());
+            newRecording.start();
+            recording = newRecording;
+
+            log.info("Flight recording started. settings : {}, maxAge : {}", settings, maxAge);
+            return RecordingStatus.from(recording);
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Cannot load JFR settings : " + settings, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public RecordingStatus stop() {
+        lock.lock();
+        try {
+            if (recording == null || recording.getState() != RecordingState.RUNNING) {
+                throw new AccountException(ErrorCode.RECORDING_NOT_FOUND);
+            }
+            // 멈춘 기록은 다음 start 전까지 dump 할 수 있다
+            recording.stop();
+            log.info("Flight recording stopped.");
+            return RecordingStatus.from(recording);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public RecordingStatus getStatus() {
+        lock.lock();
+        try {
+            if (recording == null) {
+                throw new AccountException(ErrorCode.RECORDING_NOT_FOUND);
+            }
+            return RecordingStatus.from(recording);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void dump(OutputStream outputStream) {
+        Path file = null;
+        try {
+            file = Files.createTempFile("account-", ".jfr");
+            lock.lock();
+            try {
+                if (recording == null) {
+                    throw new AccountException(ErrorCode.RECORDING_NOT_FOUND);
+                }
+                recording.dump(file);
+            } finally {
+                lock.unlock();
+            }
+            Files.copy(file, outputStream);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            deleteQuietly(file);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        lock.lock();
+        try {
+            if (recording != null) {
+                recording.close();
+                recording = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete recording dump. {}", file, e);
+        }
+    }
+}
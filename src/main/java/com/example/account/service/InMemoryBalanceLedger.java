@@ -0,0 +1,433 @@
+package com.example.account.service;
+
+import com.example.account.domain.Account;
+import com.example.account.dto.AccountSummary;
+import com.example.account.dto.JournalRecord;
+import com.example.account.dto.TransactionDto;
+import com.example.account.dto.UseBalance;
+import com.example.account.exception.AccountException;
+import com.example.account.repository.AccountRepository;
+import com.example.account.repository.TransactionRepository;
+import com.example.account.type.AccountStatus;
+import com.example.account.type.ErrorCode;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 지정한 계좌(account.ledger.account-numbers)의 잔액을 메모리에서 관리하는 원장
+ * 1. 계좌마다 락 하나로 검증 -> 저널 기록 -> 잔액 변경을 원자적으로 처리한다. (redis 락, DB 조회 없음)
+ * 2. 저널에 쓴 거래는 큐에 모아 두었다가 주기적으로 거래 행과 계좌 잔액을 한 트랜잭션에서 DB 에 반영한다.
+ * 3. 기동 시 저널에는 있는데 DB 에 없는 원장 거래를 다시 저장하고, 계좌 잔액을 마지막 거래의 잔액으로 맞춘다.
+ * 4. 잔액이 이 JVM 메모리에만 있으므로 기동 시 계좌마다 redis 소유권 락(watchdog 으로 갱신)을 잡는다.
+ *    다른 노드가 이미 잡고 있으면 기동하지 않는다. 여러 노드를 띄우면 원장 계좌 요청은 소유 노드로 보내야 한다.
+ * 저널이 유일한 내구성 수단이므로 account.journal.enabled 가 필요하다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "account.ledger.enabled", havingValue = "true")
+public class InMemoryBalanceLedger implements BalanceLedger {
+    private static final int RECOVERY_CHUNK_SIZE = 500;
+    private static final String OWNERSHIP_KEY_PREFIX = "LEDGER_OWNER:";
+
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionService transactionService;
+    private final TransactionIdGenerator transactionIdGenerator;
+    private final TransactionJournal transactionJournal;
+    private final TransactionCache transactionCache;
+    private final AccountCache accountCache;
+    private final AccountMetrics accountMetrics;
+    private final RedissonClient redissonClient;
+    private final TransactionTemplate transactionTemplate;
+    private final Set<String> accountNumbers;
+    private final int flushBatchSize;
+
+    // 기동 시 복구가 끝나기 전에는 null
+    private volatile Map<String, LedgerAccount> accounts;
+    private final Deque<JournalRecord> pending = new ConcurrentLinkedDeque<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicLong flushedCount = new AtomicLong();
+    private final List<RLock> ownerships = new ArrayList<>();
+
+    public InMemoryBalanceLedger(
+            AccountRepository accountRepository,
+            TransactionRepository transactionRepository,
+            TransactionService transactionService,
+            TransactionIdGenerator transactionIdGenerator,
+            TransactionJournal transactionJournal,
+            TransactionCache transactionCache,
+            AccountCache accountCache,
+            AccountMetrics accountMetrics,
+            RedissonClient redissonClient,
+            PlatformTransactionManager transactionManager,
+            @Value("${account.ledger.account-numbers:}") String[] accountNumbers,
+            @Value("${account.ledger.flush-batch-size:1000}") int flushBatchSize
+    ) {
+        if (transactionJournal instanceof NoTransactionJournal) {
+            throw new IllegalStateException("account.ledger.enabled requires account.journal.enabled");
+        }
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.transactionService = transactionService;
+        this.transactionIdGenerator = transactionIdGenerator;
+        this.transactionJournal = transactionJournal;
+        this.transactionCache = transactionCache;
+        this.accountCache = accountCache;
+        this.accountMetrics = accountMetrics;
+        this.redissonClient = redissonClient;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.accountNumbers = Arrays.stream(accountNumbers)
+                .map(String::trim)
+                .filter(accountNumber -> !accountNumber.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        this.flushBatchSize = flushBatchSize;
+    }
+
+    /**
+     * 저널 replay(TransactionJournalReplayer)보다 먼저 원장 계좌를 복구한다.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        acquireOwnership();
+        accounts = transactionTemplate.execute(status -> recover());
+        log.info("Ledger loaded. accounts : {}", accounts.size());
+    }
+
+    @Override
+    public boolean manages(String accountNumber) {
+        return accountNumbers.contains(accountNumber);
+    }
+
+    @Override
+    public TransactionDto useBalance(Long userId, String accountNumber, Long amount) {
+        LedgerAccount account = getAccount(accountNumber);
+        try {
+            return use(account, userId, amount);
+        } catch (AccountException e) {
+            recordFailure(account, TransactionType.USE, amount);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<TransactionDto> useBalances(String accountNumber, List<UseBalance.Request> requests) {
+        LedgerAccount account = getAccount(accountNumber);
+        List<TransactionDto> results = new ArrayList<>(requests.size());
+        for (UseBalance.Request request : requests) {
+            try {
+                results.add(use(account, request.getUserId(), request.getAmount()));
+            } catch (AccountException e) {
+                log.error("Failed to use balance in ledger batch. {}", e.getErrorCode());
+                results.add(recordFailure(account, TransactionType.USE, request.getAmount()));
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public TransactionDto cancelBalance(String transactionId, String accountNumber, Long amount) {
+        LedgerAccount account = getAccount(accountNumber);
+        try {
+            if (amount < 0) {
+                throw new AccountException(ErrorCode.INVALID_REQUEST);
+            }
+            // 원장 거래는 DB 반영 전에도 거래 캐시에 있다
+            TransactionDto transaction = transactionService.queryTransaction(transactionId);
+            AccountSummary transactionAccount = accountCache.getAccount(transaction.getAccountNumber())
+                    .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+            validateCancelBalance(transaction, transactionAccount, account, amount);
+
+            account.lock.lock();
+            try {
+                long balance = account.balance + amount;
+                TransactionDto transactionDto = record(account, TransactionType.CANCEL,
+                        TransactionResultType.S, amount, balance);
+                account.balance = balance;
+                return transactionDto;
+            } finally {
+                account.lock.unlock();
+            }
+        } catch (AccountException e) {
+            recordFailure(account, TransactionType.CANCEL, amount);
+            throw e;
+        }
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    public long getFlushedCount() {
+        return flushedCount.get();
+    }
+
+    @Scheduled(fixedDelayString = "${account.ledger.flush-interval-millis:200}")
+    public void flush() {
+        if (!flushLock.tryLock()) {
+            return;
+        }
+        try {
+            boolean flushed = true;
+            while (flushed && !pending.isEmpty()) {
+                flushed = flushBatch();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // 남은 거래는 저널에 있으므로 실패해도 다음 기동 때 복구된다
+        try {
+            flush();
+        } finally {
+            releaseOwnership();
+        }
+    }
+
+    /**
+     * 두 노드가 같은 계좌를 각자 메모리 잔액으로 처리하면 이중 사용이 생기므로 계좌마다 소유 노드는 하나다.
+     * 락은 watchdog 이 갱신하므로 노드가 죽으면 lockWatchdogTimeout 뒤에 풀린다.
+     */
+    private void acquireOwnership() {
+        for (String accountNumber : accountNumbers) {
+            RLock ownership = redissonClient.getLock(OWNERSHIP_KEY_PREFIX + accountNumber);
+            if (!ownership.tryLock()) {
+                releaseOwnership();
+                throw new IllegalStateException("Ledger account is owned by another node : " + accountNumber);
+            }
+            ownerships.add(ownership);
+        }
+    }
+
+    private void releaseOwnership() {
+        // 기동 스레드가 잡은 락이므로 스레드와 무관하게 푼다
+        ownerships.forEach(RLock::forceUnlock);
+        ownerships.clear();
+    }
+
+    private TransactionDto use(LedgerAccount account, Long userId, Long amount) {
+        accountCache.getUser(userId)
+                .orElseThrow(() -> new AccountException(ErrorCode.USER_NOT_FOUND));
+
+        account.lock.lock();
+        try {
+            if (!Objects.equals(userId, account.ownerUserId)) {
+                throw new AccountException(ErrorCode.USER_ACCOUNT_UNMATCHED);
+            }
+            if (account.accountStatus == AccountStatus.UNREGISTERED) {
+                throw new AccountException(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED);
+            }
+            if (account.balance < amount) {
+                throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
+            }
+
+            long balance = account.balance - amount;
+            TransactionDto transactionDto = record(account, TransactionType.USE,
+                    TransactionResultType.S, amount, balance);
+            account.balance = balance;
+            return transactionDto;
+        } finally {
+            account.lock.unlock();
+        }
+    }
+
+    private void validateCancelBalance(TransactionDto transaction,
+                                       AccountSummary transactionAccount,
+                                       LedgerAccount account,
+                                       Long amount) {
+        if (!Objects.equals(transactionAccount.getOwnerUserId(), account.ownerUserId)) {
+            throw new AccountException(ErrorCode.TRANSACTION_ACCOUNT_UN_MATCH);
+        }
+        if (!Objects.equals(transaction.getAmount(), amount)) {
+            throw new AccountException(ErrorCode.CANCEL_MUST_FULLY);
+        }
+        if (transaction.getTransactedAt().isBefore(LocalDateTime.now().minusYears(1))) {
+            throw new AccountException(ErrorCode.TOO_OLD_ORDER_TO_CANCEL);
+        }
+    }
+
+    private TransactionDto recordFailure(LedgerAccount account, TransactionType transactionType, Long amount) {
+        account.lock.lock();
+        try {
+            return record(account, transactionType, TransactionResultType.F, amount, account.balance);
+        } finally {
+            account.lock.unlock();
+        }
+    }
+
+    /**
+     * 저널에 먼저 쓰고(실패하면 잔액을 바꾸지 않는다) DB 반영 큐에 넣는다.
+     * 계좌 락 안에서 호출하므로 계좌별 거래 순서가 저널과 큐에서 같다.
+     */
+    private TransactionDto record(LedgerAccount account,
+                                  TransactionType transactionType,
+                                  TransactionResultType transactionResultType,
+                                  Long amount,
+                                  long balanceSnapshot) {
+        JournalRecord record = JournalRecord.builder()
+                .transactionId(transactionIdGenerator.generate())
+                .accountId(account.id)
+                .transactionType(transactionType)
+                .transactionResultType(transactionResultType)
+                .amount(amount)
+                .balanceSnapshot(balanceSnapshot)
+                .transactedAt(LocalDateTime.now())
+                .build();
+        transactionJournal.appendRecord(record);
+        pending.add(record);
+
+        TransactionDto transactionDto = TransactionDto.builder()
+                .accountNumber(account.accountNumber)
+                .transactionType(transactionType)
+                .transactionResultType(transactionResultType)
+                .amount(amount)
+                .balanceSnapshot(balanceSnapshot)
+                .transactionId(record.getTransactionId())
+                .transactedAt(record.getTransactedAt())
+                .build();
+        transactionCache.put(transactionDto);
+        return transactionDto;
+    }
+
+    private LedgerAccount getAccount(String accountNumber) {
+        Map<String, LedgerAccount> loaded = accounts;
+        if (loaded == null) {
+            // 복구가 끝나기 전
+            throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        }
+        LedgerAccount account = loaded.get(accountNumber);
+        if (account == null) {
+            throw new AccountException(ErrorCode.ACCOUNT_NOT_FOUND);
+        }
+        return account;
+    }
+
+    private boolean flushBatch() {
+        List<JournalRecord> batch = new ArrayList<>(flushBatchSize);
+        JournalRecord record;
+        while (batch.size() < flushBatchSize && (record = pending.poll()) != null) {
+            batch.add(record);
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> writeBatch(batch));
+            flushedCount.addAndGet(batch.size());
+            // DB 에 반영된 거래만 센다
+            batch.forEach(flushed -> accountMetrics.recordTransaction(
+                    flushed.getTransactionType(), flushed.getTransactionResultType()));
+            return true;
+        } catch (RuntimeException e) {
+            log.error("Failed to flush ledger. size : {}", batch.size(), e);
+            // 계좌별 순서를 지키도록 큐 앞에 되돌린다
+            for (int i = batch.size() - 1; i >= 0; i--) {
+                pending.addFirst(batch.get(i));
+            }
+            return false;
+        }
+    }
+
+    private void writeBatch(List<JournalRecord> batch) {
+        Map<Long, Account> accountRefs = new HashMap<>();
+        Map<Long, Long> balances = new HashMap<>();
+        transactionRepository.saveAll(batch.stream()
+                .map(record -> {
+                    // 큐에는 계좌별로 순서대로 들어 있으므로 마지막 잔액이 최신이다
+                    balances.put(record.getAccountId(), record.getBalanceSnapshot());
+                    return record.toEntity(accountRefs.computeIfAbsent(
+                            record.getAccountId(), accountRepository::getById));
+                })
+                .collect(Collectors.toList()));
+        transactionRepository.flush();
+
+        LocalDateTime now = LocalDateTime.now();
+        balances.forEach((accountId, balance) ->
+                accountRepository.updateBalance(accountId, balance, now));
+    }
+
+    private Map<String, LedgerAccount> recover() {
+        Map<Long, Account> accountsById = accountRepository.findByAccountNumberIn(accountNumbers)
+                .stream()
+                .collect(Collectors.toMap(Account::getId, Function.identity()));
+
+        List<JournalRecord> missing = new ArrayList<>();
+        List<JournalRecord> chunk = new ArrayList<>(RECOVERY_CHUNK_SIZE);
+        transactionJournal.readAll(record -> {
+            if (!accountsById.containsKey(record.getAccountId())) {
+                return;
+            }
+            chunk.add(record);
+            if (chunk.size() >= RECOVERY_CHUNK_SIZE) {
+                collectMissing(chunk, missing);
+                chunk.clear();
+            }
+        });
+        if (!chunk.isEmpty()) {
+            collectMissing(chunk, missing);
+        }
+
+        if (!missing.isEmpty()) {
+            transactionRepository.saveAll(missing.stream()
+                    .map(record -> record.toEntity(accountsById.get(record.getAccountId())))
+                    .collect(Collectors.toList()));
+            // DB 에 없는 거래는 계좌별로 마지막 몇 건이므로, 그중 마지막 잔액이 메모리 잔액이었다
+            missing.forEach(record -> accountsById.get(record.getAccountId())
+                    .setBalance(record.getBalanceSnapshot()));
+            log.warn("Recovered ledger transactions from journal. count : {}", missing.size());
+        }
+
+        return accountsById.values().stream()
+                .collect(Collectors.toUnmodifiableMap(Account::getAccountNumber, LedgerAccount::new));
+    }
+
+    private void collectMissing(List<JournalRecord> chunk, List<JournalRecord> missing) {
+        Set<String> existing = new HashSet<>(transactionRepository.findExistingTransactionIds(
+                chunk.stream().map(JournalRecord::getTransactionId).collect(Collectors.toList())));
+        chunk.stream()
+                .filter(record -> !existing.contains(record.getTransactionId()))
+                .forEach(missing::add);
+    }
+
+    // balance 는 lock 안에서만 읽고 쓴다
+    // (synchronized 는 가상 스레드를 캐리어 스레드에 고정시키므로 ReentrantLock 을 쓴다)
+    private static class LedgerAccount {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Long id;
+        private final String accountNumber;
+        private final Long ownerUserId;
+        private final AccountStatus accountStatus;
+        private long balance;
+
+        private LedgerAccount(Account account) {
+            this.id = account.getId();
+            this.accountNumber = account.getAccountNumber();
+            this.ownerUserId = account.getAccountUser().getId();
+            this.accountStatus = account.getAccountStatus();
+            this.balance = account.getBalance();
+        }
+    }
+}
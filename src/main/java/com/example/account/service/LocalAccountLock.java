@@ -0,0 +1,63 @@
+package com.example.account.service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * JVM 내부 계좌별 락
+ * 계좌번호마다 ReentrantLock 을 하나씩 두고, 대기자가 없어지면 맵에서 제거해서
+ * 사용된 계좌 수만큼 메모리가 늘어나지 않도록 한다.
+ */
+public class LocalAccountLock {
+    private final ConcurrentMap<String, Entry> locks = new ConcurrentHashMap<>();
+
+    public boolean tryLock(String accountNumber, long timeout, TimeUnit unit)
+            throws InterruptedException {
+        Entry entry = retain(accountNumber);
+        boolean acquired = false;
+        try {
+            acquired = entry.lock.tryLock(timeout, unit);
+            return acquired;
+        } finally {
+            if (!acquired) {
+                release(accountNumber);
+            }
+        }
+    }
+
+    public void unlock(String accountNumber) {
+        Entry entry = locks.get(accountNumber);
+        if (entry == null || !entry.lock.isHeldByCurrentThread()) {
+            throw new IllegalMonitorStateException(
+                    "Local lock is not held for accountNumber : " + accountNumber);
+        }
+        entry.lock.unlock();
+        release(accountNumber);
+    }
+
+    public boolean isLocked(String accountNumber) {
+        Entry entry = locks.get(accountNumber);
+        return entry != null && entry.lock.isLocked();
+    }
+
+    private Entry retain(String accountNumber) {
+        return locks.compute(accountNumber, (key, entry) -> {
+            Entry retained = entry == null ? new Entry() : entry;
+            retained.references++;
+            return retained;
+        });
+    }
+
+    private void release(String accountNumber) {
+        locks.computeIfPresent(accountNumber, (key, entry) ->
+                --entry.references == 0 ? null : entry);
+    }
+
+    private static class Entry {
+        private final ReentrantLock lock = new ReentrantLock();
+        // compute 블록 안에서만 변경되므로 별도 동기화가 필요 없다
+        private int references;
+    }
+}
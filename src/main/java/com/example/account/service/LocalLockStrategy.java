@@ -0,0 +1,48 @@
+package com.example.account.service;
+
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import com.example.account.type.LockType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 단일 노드 배포용 메모리 락
+ * 여러 노드가 같은 DB 를 쓰는 환경에서는 계좌를 보호하지 못한다.
+ */
+@Slf4j
+@Component
+public class LocalLockStrategy implements LockStrategy {
+    private final LocalAccountLock localLock = new LocalAccountLock();
+
+    @Override
+    public LockType getType() {
+        return LockType.LOCAL;
+    }
+
+    @Override
+    public Object executeWithLock(String accountNumber,
+                                  long tryLockTime,
+                                  LockedInvocation invocation) throws Throwable {
+        boolean isLock;
+        try {
+            isLock = localLock.tryLock(accountNumber, tryLockTime, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            isLock = false;
+        }
+
+        if (!isLock) {
+            log.error("======Local lock acquisition failed=====");
+            throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        }
+
+        try {
+            return invocation.proceed();
+        } finally {
+            localLock.unlock(accountNumber);
+        }
+    }
+}
@@ -1,11 +1,18 @@
 package com.example.account.service;
 
+import com.example.account.aop.AccountLock;
 import com.example.account.aop.AccountLockIdInterface;
+import com.example.account.exception.AccountException;
+import com.example.account.profiling.AccountPhases;
+import com.example.account.type.AccountPhase;
+import com.example.account.type.ErrorCode;
+import com.example.account.type.LockType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Component;
 
 @Aspect
@@ -13,20 +20,55 @@ import org.springframework.stereotype.Component;
 @Slf4j
 @RequiredArgsConstructor
 public class LockAopAspect {
-    private final LockService lockService;
+    private final LockStrategyRegistry lockStrategyRegistry;
+    private final ObjectProvider<BalanceLedger> balanceLedger;
+    private final AccountMetrics accountMetrics;
 
-    @Around("@annotation(com.example.account.aop.AccountLock) && args(request)")
+    @Around("@annotation(accountLock) && args(request)")
     public Object aroundMethod(
             ProceedingJoinPoint pjp,
+            AccountLock accountLock,
             AccountLockIdInterface request
     ) throws Throwable {
-        // lock 취득 시도
-        lockService.lock(request.getAccountNumber());
-        try {
+        // 메모리 원장 계좌는 이 노드가 소유권을 가진 계좌이고(InMemoryBalanceLedger)
+        // 원장이 계좌별로 직렬화하므로 락을 잡지 않는다
+        BalanceLedger ledger = balanceLedger.getIfAvailable();
+        if (ledger != null && ledger.manages(request.getAccountNumber())) {
+            return pjp.proceed();
+        }
+
+        // lock 취득 -> 실행 -> lock 해제는 어노테이션에 지정된 전략이 담당
+        LockStrategy lockStrategy = lockStrategyRegistry.resolve(accountLock.type());
+        LockType lockType = lockStrategy.getType();
+        if (!accountLock.scope().appliesTo(lockType)) {
+            // 같은 요청의 다른 @AccountLock 지점에서 잡는다
             return pjp.proceed();
-        } finally {
-            // lock 해제
-            lockService.unlock(request.getAccountNumber());
+        }
+        long requestedAt = System.nanoTime();
+        AccountPhases.PhaseTimer lockPhase =
+                AccountPhases.start(AccountPhase.LOCK, request.getAccountNumber());
+        try {
+            return lockStrategy.executeWithLock(
+                    request.getAccountNumber(),
+                    accountLock.tryLockTime(),
+                    () -> {
+                        // invocation 이 시작되면 락을 얻은 것이다 (OPTIMISTIC 은 재시도마다)
+                        long acquiredAt = System.nanoTime();
+                        lockPhase.success();
+                        accountMetrics.recordLockWait(lockType, acquiredAt - requestedAt);
+                        try {
+                            return pjp.proceed();
+                        } finally {
+                            accountMetrics.recordLockHold(lockType, System.nanoTime() - acquiredAt);
+                        }
+                    }
+            );
+        } catch (AccountException e) {
+            if (e.getErrorCode() == ErrorCode.ACCOUNT_TRANSACTION_LOCK) {
+                lockPhase.fail(e);
+                accountMetrics.recordLockFailure(lockType);
+            }
+            throw e;
         }
     }
 }
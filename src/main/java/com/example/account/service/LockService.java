@@ -2,28 +2,71 @@ package com.example.account.service;
 
 import com.example.account.exception.AccountException;
 import com.example.account.type.ErrorCode;
+import com.example.account.type.LockType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * 계좌 락
+ * 1. 같은 노드 안의 요청은 로컬 락에서 먼저 순서를 정하고
+ * 2. 로컬 락을 얻은 요청 하나만 redis 락을 시도한다.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
-public class LockService {
+public class LockService implements LockStrategy {
+    private static final long LOCK_WAIT_MILLIS = 1000L;
+    private static final long LOCK_LEASE_MILLIS = 15000L;
+
     private final RedissonClient redissonClient;
+    private final LocalAccountLock localLock = new LocalAccountLock();
+    // 비동기 락의 소유자 id (실제 스레드 id 와 겹치지 않도록 음수)
+    private final AtomicLong asyncOwnerIds = new AtomicLong();
+
+    @Override
+    public LockType getType() {
+        return LockType.REDIS;
+    }
+
+    @Override
+    public Object executeWithLock(String accountNumber,
+                                  long tryLockTime,
+                                  LockedInvocation invocation) throws Throwable {
+        lock(accountNumber, tryLockTime);
+        try {
+            return invocation.proceed();
+        } finally {
+            unlock(accountNumber);
+        }
+    }
 
     public void lock(String accountNumber) {
-        RLock lock = redissonClient.getLock(getLockKey(accountNumber));
+        lock(accountNumber, LOCK_WAIT_MILLIS);
+    }
+
+    public void lock(String accountNumber, long tryLockTime) {
         log.debug("Trying lock for accountNumber : {}", accountNumber);
+        long deadline = System.nanoTime()
+                + TimeUnit.MILLISECONDS.toNanos(tryLockTime);
 
+        lockLocal(accountNumber, tryLockTime);
+
+        RLock lock = redissonClient.getLock(getLockKey(accountNumber));
         try {
-            boolean isLock = lock.tryLock(1, 15, TimeUnit.SECONDS);
+            long remainingWait = Math.max(0L, deadline - System.nanoTime());
+            boolean isLock = lock.tryLock(remainingWait,
+                    TimeUnit.MILLISECONDS.toNanos(LOCK_LEASE_MILLIS),
+                    TimeUnit.NANOSECONDS);
             if (!isLock) {
                 log.error("======Lock acquisition failed=====");
+                localLock.unlock(accountNumber);
                 throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
             }
         } catch (AccountException e) {
@@ -35,7 +78,55 @@ public class LockService {
 
     public void unlock(String accountNumber) {
         log.debug("Unlock for accountNumber : {}", accountNumber);
-        redissonClient.getLock(getLockKey(accountNumber)).unlock();
+        try {
+            redissonClient.getLock(getLockKey(accountNumber)).unlock();
+        } finally {
+            localLock.unlock(accountNumber);
+        }
+    }
+
+    /**
+     * 요청 스레드를 잡지 않고 redis 락을 기다린다.
+     * 로컬 락은 스레드가 소유하므로 쓰지 않고, 락 소유자는 스레드 대신 반환한 id 로 구분한다.
+     */
+    public CompletableFuture<Long> lockAsync(String accountNumber, long tryLockTime) {
+        log.debug("Trying async lock for accountNumber : {}", accountNumber);
+        long ownerId = asyncOwnerIds.decrementAndGet();
+
+        return redissonClient.getLock(getLockKey(accountNumber))
+                .tryLockAsync(tryLockTime, LOCK_LEASE_MILLIS, TimeUnit.MILLISECONDS, ownerId)
+                .toCompletableFuture()
+                .thenApply(isLock -> {
+                    if (!isLock) {
+                        log.error("======Async lock acquisition failed=====");
+                        throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+                    }
+                    return ownerId;
+                });
+    }
+
+    public void unlockAsync(String accountNumber, long ownerId) {
+        log.debug("Async unlock for accountNumber : {}", accountNumber);
+        redissonClient.getLock(getLockKey(accountNumber))
+                .unlockAsync(ownerId)
+                .whenComplete((result, e) -> {
+                    if (e != null) {
+                        log.error("Redis async unlock failed", e);
+                    }
+                });
+    }
+
+    private void lockLocal(String accountNumber, long tryLockTime) {
+        try {
+            if (!localLock.tryLock(accountNumber,
+                    tryLockTime, TimeUnit.MILLISECONDS)) {
+                log.error("======Local lock acquisition failed=====");
+                throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        }
     }
 
     private static String getLockKey(String accountNumber) {
@@ -0,0 +1,20 @@
+package com.example.account.service;
+
+import com.example.account.type.LockType;
+
+/**
+ * 계좌 단위 동시성 제어 방식
+ * 락을 잡고 invocation 을 실행한 뒤 락을 해제하는 것까지 구현체가 책임진다.
+ */
+public interface LockStrategy {
+    LockType getType();
+
+    Object executeWithLock(String accountNumber,
+                           long tryLockTime,
+                           LockedInvocation invocation) throws Throwable;
+
+    @FunctionalInterface
+    interface LockedInvocation {
+        Object proceed() throws Throwable;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.account.service;
+
+import com.example.account.type.LockType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+public class LockStrategyRegistry {
+    private final Map<LockType, LockStrategy> strategies = new EnumMap<>(LockType.class);
+    private final LockType defaultLockType;
+
+    public LockStrategyRegistry(
+            List<LockStrategy> lockStrategies,
+            @Value("${account.lock.type:REDIS}") LockType defaultLockType
+    ) {
+        if (defaultLockType == LockType.DEFAULT) {
+            throw new IllegalArgumentException("account.lock.type must not be DEFAULT");
+        }
+        lockStrategies.forEach(strategy -> strategies.put(strategy.getType(), strategy));
+        this.defaultLockType = defaultLockType;
+    }
+
+    public LockStrategy resolve(LockType lockType) {
+        LockType resolvedType = lockType == LockType.DEFAULT ? defaultLockType : lockType;
+        LockStrategy strategy = strategies.get(resolvedType);
+        if (strategy == null) {
+            throw new IllegalStateException("No lock strategy for " + resolvedType);
+        }
+        return strategy;
+    }
+}
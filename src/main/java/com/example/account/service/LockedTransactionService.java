@@ -0,0 +1,34 @@
+package com.example.account.service;
+
+import com.example.account.aop.AccountLock;
+import com.example.account.dto.CancelBalance;
+import com.example.account.dto.TransactionDto;
+import com.example.account.dto.UseBalance;
+import com.example.account.type.LockScope;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+/**
+ * SINGLE_WRITER 에서 계좌 shard 스레드로 보낼 잔액 사용/취소
+ * 다른 락 전략은 컨트롤러의 @AccountLock 이 요청 전체를 잠그고, 여기서는 락을 잡지 않는다.
+ * SINGLE_WRITER 는 대기나 실패 기록처럼 계좌와 무관한 호출자 작업이 shard 를 막지 않도록 여기서만 잡는다.
+ */
+@Service
+@RequiredArgsConstructor
+public class LockedTransactionService {
+    private final TransactionService transactionService;
+
+    @AccountLock(scope = LockScope.ACCOUNT_WORK)
+    public TransactionDto useBalance(UseBalance.Request request) {
+        return transactionService.useBalance(request.getUserId(),
+                request.getAccountNumber(),
+                request.getAmount());
+    }
+
+    @AccountLock(scope = LockScope.ACCOUNT_WORK)
+    public TransactionDto cancelBalance(CancelBalance.Request request) {
+        return transactionService.cancelBalance(request.getTransactionId(),
+                request.getAccountNumber(),
+                request.getAmount());
+    }
+}
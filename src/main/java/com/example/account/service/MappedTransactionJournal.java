@@ -0,0 +1,361 @@
+package com.example.account.service;
+
+import com.example.account.domain.Transaction;
+import com.example.account.dto.JournalRecord;
+import com.example.account.type.JournalForcePolicy;
+import com.example.account.type.JournalRecordState;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * 메모리 매핑 파일에 거래를 append 하는 저널
+ * 1. 레코드는 고정 길이(RECORD_SIZE)이고 앞 4바이트가 나머지 바이트의 CRC32 이다.
+ * 2. 세그먼트 파일(journal-000...N.log)이 가득 차면 다음 세그먼트로 넘어간다.
+ * 3. CRC 가 맞지 않는 첫 레코드를 저널의 끝으로 본다. (쓰다 만 레코드, 아직 안 쓴 영역)
+ * 4. DB 커밋 직전(beforeCommit)에 PREPARED 레코드를 먼저 쓰고,
+ *    커밋이 끝나면 COMMITTED, 롤백되면 ABORTED 레코드를 같은 내용으로 한 번 더 쓴다.
+ * readAll 은 COMMITTED 레코드가 있는 거래만 넘긴다.
+ * 커밋 표시 없이 PREPARED 만 남은 거래(DB 커밋 전후 장애)는 결과를 알 수 없으므로 로그로만 남긴다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "account.journal.enabled", havingValue = "true")
+public class MappedTransactionJournal implements TransactionJournal {
+    // crc(4) sequence(8) transactedAt(8+4) accountId(8) amount(8) balanceSnapshot(8)
+    // transactionType(1) transactionResultType(1) transactionId 길이(1) + 내용(32) state(1) = 84, 96 으로 맞춘다
+    static final int RECORD_SIZE = 96;
+    private static final int CRC_SIZE = 4;
+    private static final int TRANSACTION_ID_MAX_LENGTH = 32;
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final TransactionType[] TRANSACTION_TYPES = TransactionType.values();
+    private static final TransactionResultType[] RESULT_TYPES = TransactionResultType.values();
+    private static final JournalRecordState[] STATES = JournalRecordState.values();
+
+    private final Path directory;
+    private final int segmentSize;
+    private final JournalForcePolicy forcePolicy;
+    private final int forceBatchSize;
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private long segmentNo;
+    private long sequence;
+    private int unforcedCount;
+
+    public MappedTransactionJournal(
+            @Value("${account.journal.directory:./journal}") String directory,
+            @Value("${account.journal.segment-size:64MB}") DataSize segmentSize,
+            @Value("${account.journal.force-policy:BATCH}") JournalForcePolicy forcePolicy,
+            @Value("${account.journal.force-batch-size:100}") int forceBatchSize
+    ) {
+        this.directory = Paths.get(directory);
+        // 레코드가 세그먼트 경계에 걸치지 않도록 레코드 크기의 배수로 내린다
+        long records = Math.max(1L, Math.min(segmentSize.toBytes(), Integer.MAX_VALUE) / RECORD_SIZE);
+        this.segmentSize = (int) (records * RECORD_SIZE);
+        this.forcePolicy = forcePolicy;
+        this.forceBatchSize = Math.max(1, forceBatchSize);
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        Files.createDirectories(directory);
+        List<Path> segments = listSegments();
+
+        if (segments.isEmpty()) {
+            openSegment(0L);
+            return;
+        }
+
+        // 마지막 세그먼트의 끝에서 이어 쓴다
+        Path last = segments.get(segments.size() - 1);
+        openSegment(segmentNo(last));
+        int position = scan(buffer, record -> sequence = record.getSequence());
+        truncateTail(position);
+        buffer.position(position);
+
+        if (sequence == 0L && segments.size() > 1) {
+            // 방금 넘어간 빈 세그먼트면 이전 세그먼트에서 sequence 를 이어받는다
+            readSegment(segments.get(segments.size() - 2),
+                    record -> sequence = record.getSequence());
+        }
+        log.info("Journal opened. segment : {}, position : {}, sequence : {}",
+                segmentNo, position, sequence);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        appendLock.lock();
+        try {
+            if (buffer != null) {
+                buffer.force();
+            }
+            if (channel != null) {
+                channel.close();
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    @Override
+    public void append(Transaction transaction) {
+        JournalRecord record = JournalRecord.from(transaction);
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            write(record);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    private boolean prepared;
+
+                    @Override
+                    public void beforeCommit(boolean readOnly) {
+                        // 저널에 쓰지 못하면 예외로 DB 커밋도 하지 않는다
+                        write(record.withState(JournalRecordState.PREPARED));
+                        prepared = true;
+                    }
+
+                    @Override
+                    public void afterCompletion(int status) {
+                        // 커밋 결과를 알 수 없으면 PREPARED 로 남겨 둔다
+                        if (!prepared || status == STATUS_UNKNOWN) {
+                            return;
+                        }
+                        JournalRecordState state = status == STATUS_COMMITTED
+                                ? JournalRecordState.COMMITTED : JournalRecordState.ABORTED;
+                        try {
+                            write(record.withState(state));
+                        } catch (RuntimeException e) {
+                            // 이미 끝난 DB 트랜잭션이라 되돌릴 수 없다, PREPARED 레코드만 남는다
+                            log.error("Failed to append {} marker to journal. transactionId : {}",
+                                    state, record.getTransactionId(), e);
+                        }
+                    }
+                });
+    }
+
+    @Override
+    public void appendRecord(JournalRecord record) {
+        write(record);
+    }
+
+    @Override
+    public void readAll(Consumer<JournalRecord> consumer) {
+        // 커밋 표시를 아직 못 본 PREPARED 레코드
+        Map<String, JournalRecord> prepared = new LinkedHashMap<>();
+        try {
+            for (Path segment : listSegments()) {
+                readSegment(segment, record -> {
+                    switch (record.getState()) {
+                        case PREPARED:
+                            prepared.put(record.getTransactionId(), record);
+                            break;
+                        case ABORTED:
+                            prepared.remove(record.getTransactionId());
+                            break;
+                        default:
+                            prepared.remove(record.getTransactionId());
+                            consumer.accept(record);
+                    }
+                });
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        prepared.values().forEach(record -> log.warn(
+                "Journal record without commit marker skipped. sequence : {}, transactionId : {}",
+                record.getSequence(), record.getTransactionId()));
+    }
+
+    long write(JournalRecord record) {
+        appendLock.lock();
+        try {
+            if (buffer.remaining() < RECORD_SIZE) {
+                rotate();
+            }
+            encode(buffer, ++sequence, record);
+
+            if (forcePolicy == JournalForcePolicy.EVERY_RECORD
+                    || (forcePolicy == JournalForcePolicy.BATCH
+                    && ++unforcedCount >= forceBatchSize)) {
+                buffer.force();
+                unforcedCount = 0;
+            }
+            return sequence;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private void rotate() throws IOException {
+        buffer.force();
+        unforcedCount = 0;
+        channel.close();
+        openSegment(segmentNo + 1);
+        log.info("Journal rotated to segment : {}", segmentNo);
+    }
+
+    private void openSegment(long segmentNo) throws IOException {
+        this.segmentNo = segmentNo;
+        this.channel = FileChannel.open(segmentPath(segmentNo),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+    }
+
+    /**
+     * 손상된 레코드 뒤에 남은 이전 레코드가 새 레코드와 섞여 읽히지 않도록 지운다.
+     */
+    private void truncateTail(int position) {
+        byte[] empty = new byte[RECORD_SIZE];
+        ByteBuffer tail = buffer.duplicate();
+        while (position + RECORD_SIZE <= tail.capacity()
+                && (tail.getInt(position) != 0 || tail.getLong(position + CRC_SIZE) != 0L)) {
+            tail.position(position);
+            tail.put(empty);
+            position += RECORD_SIZE;
+        }
+        buffer.force();
+    }
+
+    private void readSegment(Path segment, Consumer<JournalRecord> consumer) throws IOException {
+        try (FileChannel readChannel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            scan(readChannel.map(FileChannel.MapMode.READ_ONLY, 0, readChannel.size()), consumer);
+        }
+    }
+
+    /**
+     * 첫 레코드부터 올바른 레코드를 읽어서 넘기고, 저널의 끝 위치를 반환한다.
+     */
+    private static int scan(ByteBuffer segment, Consumer<JournalRecord> consumer) {
+        int position = 0;
+        while (position + RECORD_SIZE <= segment.capacity()) {
+            JournalRecord record = decode(segment, position);
+            if (record == null) {
+                break;
+            }
+            consumer.accept(record);
+            position += RECORD_SIZE;
+        }
+        return position;
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private Path segmentPath(long segmentNo) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, segmentNo, SEGMENT_SUFFIX));
+    }
+
+    private static long segmentNo(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+                name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    static void encode(ByteBuffer buffer, long sequence, JournalRecord record) {
+        byte[] transactionId = record.getTransactionId().getBytes(StandardCharsets.US_ASCII);
+        if (transactionId.length > TRANSACTION_ID_MAX_LENGTH) {
+            throw new IllegalArgumentException("transactionId too long : " + record.getTransactionId());
+        }
+
+        int start = buffer.position();
+        LocalDateTime transactedAt = record.getTransactedAt();
+        buffer.position(start + CRC_SIZE);
+        buffer.putLong(sequence)
+                .putLong(transactedAt.toEpochSecond(ZoneOffset.UTC))
+                .putInt(transactedAt.getNano())
+                .putLong(record.getAccountId())
+                .putLong(record.getAmount())
+                .putLong(record.getBalanceSnapshot())
+                .put((byte) record.getTransactionType().ordinal())
+                .put((byte) record.getTransactionResultType().ordinal())
+                .put((byte) transactionId.length)
+                .put(transactionId)
+                .put(new byte[TRANSACTION_ID_MAX_LENGTH - transactionId.length])
+                .put((byte) record.getState().ordinal())
+                .put(new byte[start + RECORD_SIZE - buffer.position()]);
+
+        // 본문을 다 쓴 뒤에 CRC 를 쓴다 (중간에 죽으면 CRC 가 맞지 않는다)
+        buffer.putInt(start, crc(buffer, start));
+    }
+
+    static JournalRecord decode(ByteBuffer segment, int start) {
+        if (segment.getInt(start) != crc(segment, start)) {
+            return null;
+        }
+
+        ByteBuffer in = segment.duplicate();
+        in.position(start + CRC_SIZE);
+        long sequence = in.getLong();
+        if (sequence <= 0L) {
+            return null;
+        }
+        LocalDateTime transactedAt = LocalDateTime.ofEpochSecond(in.getLong(), in.getInt(), ZoneOffset.UTC);
+        long accountId = in.getLong();
+        long amount = in.getLong();
+        long balanceSnapshot = in.getLong();
+        TransactionType transactionType = TRANSACTION_TYPES[in.get()];
+        TransactionResultType transactionResultType = RESULT_TYPES[in.get()];
+        byte[] transactionId = new byte[in.get()];
+        in.get(transactionId);
+        in.position(in.position() + TRANSACTION_ID_MAX_LENGTH - transactionId.length);
+        JournalRecordState state = STATES[in.get()];
+
+        return new JournalRecord(sequence, new String(transactionId, StandardCharsets.US_ASCII),
+                accountId, transactionType, transactionResultType,
+                amount, balanceSnapshot, transactedAt, state);
+    }
+
+    private static int crc(ByteBuffer buffer, int start) {
+        ByteBuffer body = buffer.duplicate();
+        body.limit(start + RECORD_SIZE).position(start + CRC_SIZE);
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.account.service;
+
+import com.example.account.type.LockType;
+import org.springframework.stereotype.Component;
+
+/**
+ * 락 없이 실행
+ * 잔액 변경이 조건부 UPDATE 한 번으로 끝나는 모드(account.transaction.conditional-update)와 함께 사용한다.
+ */
+@Component
+public class NoLockStrategy implements LockStrategy {
+    @Override
+    public LockType getType() {
+        return LockType.NONE;
+    }
+
+    @Override
+    public Object executeWithLock(String accountNumber,
+                                  long tryLockTime,
+                                  LockedInvocation invocation) throws Throwable {
+        return invocation.proceed();
+    }
+}
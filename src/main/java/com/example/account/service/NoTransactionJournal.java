@@ -0,0 +1,28 @@
+package com.example.account.service;
+
+import com.example.account.domain.Transaction;
+import com.example.account.dto.JournalRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Consumer;
+
+/**
+ * 저널을 쓰지 않는 기본 설정
+ */
+@Component
+@ConditionalOnProperty(name = "account.journal.enabled",
+        havingValue = "false", matchIfMissing = true)
+public class NoTransactionJournal implements TransactionJournal {
+    @Override
+    public void append(Transaction transaction) {
+    }
+
+    @Override
+    public void appendRecord(JournalRecord record) {
+    }
+
+    @Override
+    public void readAll(Consumer<JournalRecord> consumer) {
+    }
+}
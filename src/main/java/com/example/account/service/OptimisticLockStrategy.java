@@ -0,0 +1,49 @@
+package com.example.account.service;
+
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import com.example.account.type.LockType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Account 의 @Version 충돌을 감지해서 재시도
+ * 락을 잡지 않고 실행한 뒤, 커밋 시점에 다른 요청이 먼저 계좌를 바꿨으면 처음부터 다시 실행한다.
+ * 재시도는 횟수(max-attempts)로만 제한한다. 실행 시간까지 포함하는 시간 한도를 두면
+ * 실행이 긴 호출(동기 사용 API 는 5초 대기)은 한 번도 재시도하지 못한다.
+ */
+@Slf4j
+@Component
+public class OptimisticLockStrategy implements LockStrategy {
+    @Value("${account.lock.optimistic.max-attempts:3}")
+    private int maxAttempts = 3;
+
+    @Value("${account.lock.optimistic.backoff-millis:10}")
+    private long backoffMillis = 10L;
+
+    @Override
+    public LockType getType() {
+        return LockType.OPTIMISTIC;
+    }
+
+    @Override
+    public Object executeWithLock(String accountNumber,
+                                  long tryLockTime,
+                                  LockedInvocation invocation) throws Throwable {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return invocation.proceed();
+            } catch (OptimisticLockingFailureException e) {
+                log.debug("Version conflict for accountNumber : {}, attempt : {}",
+                        accountNumber, attempt);
+                if (attempt >= maxAttempts) {
+                    log.error("======Optimistic lock retries exhausted=====");
+                    throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+                }
+                Thread.sleep(backoffMillis * attempt);
+            }
+        }
+    }
+}
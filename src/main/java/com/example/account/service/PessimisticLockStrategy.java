@@ -0,0 +1,60 @@
+package com.example.account.service;
+
+import com.example.account.exception.AccountException;
+import com.example.account.repository.AccountRepository;
+import com.example.account.type.ErrorCode;
+import com.example.account.type.LockType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+/**
+ * DB 행 락(SELECT ... FOR UPDATE)
+ * invocation 전체를 하나의 트랜잭션으로 묶고, 그 안에서 계좌 행을 먼저 잠근다.
+ * 행 락 대기 시간은 tryLockTime 을 lock timeout 힌트로 넘겨 정한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PessimisticLockStrategy implements LockStrategy {
+    private final PlatformTransactionManager transactionManager;
+    private final AccountRepository accountRepository;
+
+    @Override
+    public LockType getType() {
+        return LockType.PESSIMISTIC;
+    }
+
+    @Override
+    public Object executeWithLock(String accountNumber,
+                                  long tryLockTime,
+                                  LockedInvocation invocation) throws Throwable {
+        TransactionStatus status =
+                transactionManager.getTransaction(new DefaultTransactionDefinition());
+
+        Object result;
+        try {
+            accountRepository.findForUpdateByAccountNumber(accountNumber, tryLockTime);
+            result = invocation.proceed();
+        } catch (PessimisticLockingFailureException | QueryTimeoutException e) {
+            transactionManager.rollback(status);
+            log.error("======Row lock acquisition failed=====");
+            throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        } catch (AccountException e) {
+            // 업무 검증 실패여도 실패 거래 기록은 남아야 하므로 커밋한다
+            transactionManager.commit(status);
+            throw e;
+        } catch (Throwable t) {
+            transactionManager.rollback(status);
+            throw t;
+        }
+
+        transactionManager.commit(status);
+        return result;
+    }
+}
@@ -0,0 +1,257 @@
+package com.example.account.service;
+
+import com.example.account.dto.AccountBalance;
+import com.example.account.dto.AccountDrift;
+import com.example.account.dto.ReconciliationReport;
+import com.example.account.dto.TransactionReplay;
+import com.example.account.exception.AccountException;
+import com.example.account.repository.AccountRepository;
+import com.example.account.repository.TransactionRepository;
+import com.example.account.type.ErrorCode;
+import com.example.account.type.ReconciliationStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 잔액 대사
+ * 1. 계좌를 id 구간(chunk)으로 나눠 ForkJoinPool 에서 병렬로 처리하고
+ * 2. 계좌별로 성공 거래(USE/CANCEL)를 순서대로 다시 반영해서
+ * 3. 재계산한 잔액, 마지막 balanceSnapshot, 저장된 잔액이 다르면 보고한다.
+ * 시작 잔액은 계좌에 기록된 개설 시 잔액(openingBalance)이다. 기록이 없는 예전 계좌만
+ * 첫 거래의 snapshot 에서 역산하므로, 그런 계좌는 첫 거래의 어긋남을 찾지 못한다.
+ * chunk 마다 짧은 읽기 전용 트랜잭션으로 끝내서 긴 트랜잭션을 만들지 않는다.
+ * 계좌와 거래를 같은 스냅샷에서 읽도록 REPEATABLE_READ 로 읽는다.
+ * (두 조회 사이에 커밋된 거래가 한쪽에만 보이면 진행 중인 요청이 불일치로 보고된다)
+ */
+@Slf4j
+@Service
+public class ReconciliationService {
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ForkJoinPool pool;
+    private final long chunkSize;
+    private final int maxReportedDrifts;
+
+    private final AtomicReference<Run> current = new AtomicReference<>();
+
+    public ReconciliationService(
+            AccountRepository accountRepository,
+            TransactionRepository transactionRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${account.reconciliation.parallelism:0}") int parallelism,
+            @Value("${account.reconciliation.chunk-size:1000}") long chunkSize,
+            @Value("${account.reconciliation.max-reported-drifts:1000}") int maxReportedDrifts) {
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.pool = new ForkJoinPool(parallelism > 0
+                ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.chunkSize = chunkSize;
+        this.maxReportedDrifts = maxReportedDrifts;
+    }
+
+    /**
+     * 백그라운드로 대사를 시작하고 진행 상황을 바로 돌려준다.
+     */
+    public ReconciliationReport start() {
+        Run run = begin();
+        pool.execute(() -> execute(run));
+        return run.toReport();
+    }
+
+    /**
+     * 대사가 끝날 때까지 기다린다.
+     */
+    public ReconciliationReport reconcile() {
+        Run run = begin();
+        execute(run);
+        return run.toReport();
+    }
+
+    public Optional<ReconciliationReport> getReport() {
+        return Optional.ofNullable(current.get()).map(Run::toReport);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private Run begin() {
+        Run previous = current.get();
+        if (previous != null && previous.status == ReconciliationStatus.RUNNING) {
+            throw new AccountException(ErrorCode.RECONCILIATION_IN_PROGRESS);
+        }
+        Run run = new Run();
+        if (!current.compareAndSet(previous, run)) {
+            throw new AccountException(ErrorCode.RECONCILIATION_IN_PROGRESS);
+        }
+        return run;
+    }
+
+    private void execute(Run run) {
+        try {
+            Long minId = accountRepository.findMinId();
+            Long maxId = accountRepository.findMaxId();
+            if (minId != null) {
+                run.totalChunks.set((maxId - minId) / chunkSize + 1);
+                pool.invoke(new RangeTask(run, minId, maxId));
+            }
+            run.finish(ReconciliationStatus.COMPLETED);
+            log.info("Reconciliation completed. accounts : {}, transactions : {}, drifts : {}",
+                    run.reconciledAccounts, run.replayedTransactions, run.driftCount);
+        } catch (RuntimeException e) {
+            log.error("Reconciliation failed", e);
+            run.finish(ReconciliationStatus.FAILED);
+        }
+    }
+
+    private void reconcileChunk(Run run, long fromId, long toId) {
+        List<AccountDrift> drifts = transactionTemplate.execute(status -> {
+            List<AccountBalance> accounts =
+                    accountRepository.findBalancesByIdBetween(fromId, toId);
+            List<TransactionReplay> transactions =
+                    transactionRepository.findReplayByAccountIdBetween(fromId, toId);
+            run.replayedTransactions.addAndGet(transactions.size());
+            run.reconciledAccounts.addAndGet(accounts.size());
+
+            Map<Long, List<TransactionReplay>> byAccount = new HashMap<>();
+            for (TransactionReplay transaction : transactions) {
+                byAccount.computeIfAbsent(transaction.getAccountId(), id -> new ArrayList<>())
+                        .add(transaction);
+            }
+
+            List<AccountDrift> found = new ArrayList<>();
+            for (AccountBalance account : accounts) {
+                replay(account, byAccount.getOrDefault(account.getAccountId(),
+                        Collections.emptyList())).ifPresent(found::add);
+            }
+            return found;
+        });
+
+        for (AccountDrift drift : drifts) {
+            run.addDrift(drift, maxReportedDrifts);
+        }
+        run.completedChunks.incrementAndGet();
+    }
+
+    static Optional<AccountDrift> replay(AccountBalance account,
+                                         List<TransactionReplay> transactions) {
+        Long openingBalance = account.getOpeningBalance();
+        if (openingBalance == null && transactions.isEmpty()) {
+            return Optional.empty();
+        }
+
+        long balance;
+        if (openingBalance != null) {
+            balance = openingBalance;
+        } else {
+            TransactionReplay first = transactions.get(0);
+            balance = first.getBalanceSnapshot() - first.delta();
+        }
+        int mismatchedSnapshots = 0;
+        for (TransactionReplay transaction : transactions) {
+            balance += transaction.delta();
+            if (balance != transaction.getBalanceSnapshot()) {
+                mismatchedSnapshots++;
+            }
+        }
+
+        Long latestSnapshot = transactions.isEmpty()
+                ? null : transactions.get(transactions.size() - 1).getBalanceSnapshot();
+        if (mismatchedSnapshots == 0 && balance == account.getBalance()) {
+            return Optional.empty();
+        }
+
+        return Optional.of(AccountDrift.builder()
+                .accountNumber(account.getAccountNumber())
+                .storedBalance(account.getBalance())
+                .replayedBalance(balance)
+                .latestSnapshot(latestSnapshot)
+                .mismatchedSnapshots(mismatchedSnapshots)
+                .build());
+    }
+
+    private class RangeTask extends RecursiveAction {
+        private final Run run;
+        private final long fromId;
+        private final long toId;
+
+        private RangeTask(Run run, long fromId, long toId) {
+            this.run = run;
+            this.fromId = fromId;
+            this.toId = toId;
+        }
+
+        @Override
+        protected void compute() {
+            if (toId - fromId < chunkSize) {
+                reconcileChunk(run, fromId, toId);
+                return;
+            }
+
+            // chunk 경계에 맞춰서 반으로 나눈다
+            long chunks = (toId - fromId) / chunkSize + 1;
+            long middle = fromId + (chunks / 2) * chunkSize;
+            invokeAll(new RangeTask(run, fromId, middle - 1),
+                    new RangeTask(run, middle, toId));
+        }
+    }
+
+    private static class Run {
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private volatile LocalDateTime finishedAt;
+        private volatile ReconciliationStatus status = ReconciliationStatus.RUNNING;
+
+        private final AtomicLong totalChunks = new AtomicLong();
+        private final AtomicLong completedChunks = new AtomicLong();
+        private final AtomicLong reconciledAccounts = new AtomicLong();
+        private final AtomicLong replayedTransactions = new AtomicLong();
+        private final AtomicLong driftCount = new AtomicLong();
+        private final AtomicInteger reportedDrifts = new AtomicInteger();
+        private final Queue<AccountDrift> drifts = new ConcurrentLinkedQueue<>();
+
+        private void addDrift(AccountDrift drift, int maxReportedDrifts) {
+            driftCount.incrementAndGet();
+            if (reportedDrifts.incrementAndGet() <= maxReportedDrifts) {
+                drifts.add(drift);
+            }
+        }
+
+        private void finish(ReconciliationStatus status) {
+            this.finishedAt = LocalDateTime.now();
+            this.status = status;
+        }
+
+        private ReconciliationReport toReport() {
+            return ReconciliationReport.builder()
+                    .status(status)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .totalChunks(totalChunks.get())
+                    .completedChunks(completedChunks.get())
+                    .reconciledAccounts(reconciledAccounts.get())
+                    .replayedTransactions(replayedTransactions.get())
+                    .driftCount(driftCount.get())
+                    .drifts(new ArrayList<>(drifts))
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.account.service;
+
+import com.example.account.exception.AccountException;
+import com.example.account.profiling.ServerTimings;
+import com.example.account.type.ErrorCode;
+import com.example.account.type.LockType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 락 대신 AccountExecutionEngine 의 계좌별 단일 스레드에서 실행
+ * 같은 계좌의 요청은 큐에서 순서대로 처리된다.
+ * 큐가 가득 찼거나 tryLockTime 안에 shard 에서 실행이 시작되지 않으면 실패하고, 그 작업은 실행하지 않는다.
+ * shard 는 여러 계좌가 나눠 쓰므로 invocation 에는 계좌 작업만 두어야 한다. (LockedTransactionService)
+ * 표본 요청의 Server-Timing 은 shard 스레드로 넘겨서 단계 시간을 이어서 잰다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SingleWriterLockStrategy implements LockStrategy {
+    private final AccountExecutionEngine accountExecutionEngine;
+
+    @Override
+    public LockType getType() {
+        return LockType.SINGLE_WRITER;
+    }
+
+    @Override
+    public Object executeWithLock(String accountNumber,
+                                  long tryLockTime,
+                                  LockedInvocation invocation) throws Throwable {
+        CompletableFuture<Void> started = new CompletableFuture<>();
+        ServerTimings timings = ServerTimings.current();
+        CompletableFuture<Object> result = accountExecutionEngine.submit(accountNumber, () -> {
+            // 대기 시간이 지나 호출자가 포기한 작업은 실행하지 않는다
+            if (!started.complete(null)) {
+                throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+            }
+            if (timings == null) {
+                return invocation.proceed();
+            }
+            ServerTimings.attach(timings);
+            try {
+                return invocation.proceed();
+            } finally {
+                ServerTimings.end();
+            }
+        });
+
+        try {
+            // 실행이 시작될 때까지만 tryLockTime 으로 기다린다 (큐가 가득 차면 result 가 바로 실패한다)
+            CompletableFuture.anyOf(started, result).get(tryLockTime, TimeUnit.MILLISECONDS);
+            return result.get();
+        } catch (TimeoutException e) {
+            if (started.cancel(false)) {
+                log.error("======Account engine shard is busy=====");
+                throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+            }
+            // 포기하기 직전에 실행이 시작됐으면 끝까지 기다린다
+            return awaitResult(result);
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        } catch (InterruptedException e) {
+            started.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        }
+    }
+
+    private static Object awaitResult(CompletableFuture<Object> result) throws Throwable {
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        }
+    }
+}
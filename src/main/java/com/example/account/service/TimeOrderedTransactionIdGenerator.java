@@ -0,0 +1,80 @@
+package com.example.account.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 시간순 거래 id (snowflake 방식)
+ * 41bit 밀리초 | 10bit 노드 | 12bit 순번 을 crockford base32 13자리로 쓴다.
+ * 같은 노드에서 만든 id 는 문자열 비교로도 항상 증가하므로 인덱스 끝에만 insert 된다.
+ * 1ms 안에 순번이 다 차거나 시계가 뒤로 가면 마지막 시각을 이어서 써서 단조 증가를 유지한다.
+ */
+@Component
+@ConditionalOnProperty(name = "account.transaction-id.generator",
+        havingValue = "time-ordered")
+public class TimeOrderedTransactionIdGenerator implements TransactionIdGenerator {
+    static final long EPOCH_MILLIS = Instant.parse("2022-01-01T00:00:00Z").toEpochMilli();
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    static final int LENGTH = 13;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    private final Clock clock;
+    private final long nodeId;
+    // (epoch 이후 밀리초 << SEQUENCE_BITS) | 순번
+    private final AtomicLong state = new AtomicLong();
+
+    public TimeOrderedTransactionIdGenerator(
+            @Value("${account.transaction-id.node-id:0}") long nodeId) {
+        this(Clock.systemUTC(), nodeId);
+    }
+
+    TimeOrderedTransactionIdGenerator(Clock clock, long nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException(
+                    "node-id must be between 0 and " + MAX_NODE_ID + " : " + nodeId);
+        }
+        this.clock = clock;
+        this.nodeId = nodeId;
+    }
+
+    @Override
+    public String generate() {
+        long next = nextState();
+        long timestamp = next >>> SEQUENCE_BITS;
+        long id = (timestamp << (NODE_BITS + SEQUENCE_BITS))
+                | (nodeId << SEQUENCE_BITS)
+                | (next & SEQUENCE_MASK);
+        return encode(id);
+    }
+
+    private long nextState() {
+        long now = (clock.millis() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        while (true) {
+            long last = state.get();
+            // 현재 시각이 마지막 시각보다 크면 순번 0 부터, 아니면 마지막 값 + 1
+            // (순번이 넘치면 자연스럽게 다음 밀리초로 올라간다)
+            long next = now > last ? now : last + 1;
+            if (state.compareAndSet(last, next)) {
+                return next;
+            }
+        }
+    }
+
+    static String encode(long id) {
+        char[] buffer = new char[LENGTH];
+        for (int i = LENGTH - 1; i >= 0; i--) {
+            buffer[i] = ALPHABET[(int) (id & 0x1F)];
+            id >>>= 5;
+        }
+        return new String(buffer);
+    }
+}
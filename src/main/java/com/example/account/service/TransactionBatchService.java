@@ -0,0 +1,81 @@
+package com.example.account.service;
+
+import com.example.account.dto.TransactionDto;
+import com.example.account.dto.UseBalance;
+import com.example.account.exception.AccountException;
+import com.example.account.type.LockType;
+import com.example.account.type.TransactionType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * 잔액 사용 일괄 처리
+ * 요청을 계좌별로 묶어 계좌 락을 한 번만 잡고, 계좌마다 하나의 트랜잭션에서 처리한다.
+ * 결과는 요청과 같은 순서로 돌려준다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransactionBatchService {
+    private static final long TRY_LOCK_TIME = 1000L;
+
+    private final TransactionService transactionService;
+    private final LockStrategyRegistry lockStrategyRegistry;
+    private final ObjectProvider<BalanceLedger> balanceLedger;
+
+    public List<TransactionDto> useBalances(List<UseBalance.Request> requests) {
+        Map<String, List<Integer>> indexesByAccount = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            indexesByAccount.computeIfAbsent(requests.get(i).getAccountNumber(),
+                    accountNumber -> new ArrayList<>()).add(i);
+        }
+
+        LockStrategy lockStrategy = lockStrategyRegistry.resolve(LockType.DEFAULT);
+        BalanceLedger ledger = balanceLedger.getIfAvailable();
+        TransactionDto[] results = new TransactionDto[requests.size()];
+        indexesByAccount.forEach((accountNumber, indexes) -> {
+            List<UseBalance.Request> accountRequests = indexes.stream()
+                    .map(requests::get)
+                    .collect(Collectors.toList());
+
+            List<TransactionDto> accountResults = ledger != null && ledger.manages(accountNumber)
+                    ? ledger.useBalances(accountNumber, accountRequests)
+                    : useBalancesWithLock(lockStrategy, accountNumber, accountRequests);
+
+            for (int i = 0; i < indexes.size(); i++) {
+                results[indexes.get(i)] = accountResults.get(i);
+            }
+        });
+
+        return Arrays.asList(results);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<TransactionDto> useBalancesWithLock(LockStrategy lockStrategy,
+                                                     String accountNumber,
+                                                     List<UseBalance.Request> requests) {
+        try {
+            return (List<TransactionDto>) lockStrategy.executeWithLock(
+                    accountNumber,
+                    TRY_LOCK_TIME,
+                    () -> transactionService.useBalances(accountNumber, requests)
+            );
+        } catch (AccountException e) {
+            // 락을 얻지 못한 계좌의 요청은 모두 실패로 돌려준다 (단건 요청과 같이 실패 거래는 남기지 않는다)
+            log.error("Failed to use balances of account. {}", e.getErrorCode());
+            return requests.stream()
+                    .map(request -> TransactionDto.unrecordedFailure(
+                            TransactionType.USE, accountNumber, request.getAmount()))
+                    .collect(Collectors.toList());
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+}
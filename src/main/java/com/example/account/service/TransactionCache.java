@@ -0,0 +1,67 @@
+package com.example.account.service;
+
+import com.example.account.dto.TransactionDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * 거래 조회 캐시
+ * 저장된 거래는 바뀌지 않으므로 transactionId 로 TransactionDto 를 캐시한다.
+ * 커밋 전에 넣으면 롤백된 거래가 조회될 수 있어서 커밋 이후에 넣는다.
+ * 히트/미스 수는 MeterRegistry 가 있으면 cache.gets 등으로 노출된다.
+ */
+@Component
+public class TransactionCache {
+    private final Cache<String, TransactionDto> cache;
+
+    public TransactionCache(
+            @Value("${account.cache.transaction.maximum-size:100000}") long maximumSize,
+            @Value("${account.cache.transaction.expire-after-write:10m}") Duration expireAfterWrite,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        meterRegistry.ifAvailable(registry ->
+                CaffeineCacheMetrics.monitor(registry, cache, "transaction"));
+    }
+
+    public Optional<TransactionDto> get(String transactionId) {
+        return Optional.ofNullable(cache.getIfPresent(transactionId));
+    }
+
+    public void put(TransactionDto transactionDto) {
+        if (transactionDto.getTransactionId() == null) {
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.put(transactionDto.getTransactionId(), transactionDto);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        cache.put(transactionDto.getTransactionId(), transactionDto);
+                    }
+                });
+    }
+
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.account.service;
+
+import com.example.account.domain.Transaction;
+import com.example.account.dto.QueryTransactionResponse;
+import com.example.account.dto.TransactionDto;
+import com.example.account.exception.AccountException;
+import com.example.account.repository.TransactionRepository;
+import com.example.account.type.ErrorCode;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * 거래 내보내기 (NDJSON, 한 줄에 거래 하나)
+ * 읽은 거래는 바로 응답에 쓰고 영속성 컨텍스트에서 떼어내므로
+ * 기간이 아무리 길어도 메모리 사용량이 일정하다.
+ */
+@Slf4j
+@Service
+public class TransactionExportService {
+    private final TransactionRepository transactionRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    public TransactionExportService(
+            TransactionRepository transactionRepository,
+            EntityManager entityManager,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager) {
+        this.transactionRepository = transactionRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        // readOnly: flush 하지 않고 dirty checking 용 스냅샷도 만들지 않는다
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    public void validateRange(LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new AccountException(ErrorCode.INVALID_REQUEST);
+        }
+    }
+
+    public long export(LocalDateTime from, LocalDateTime to, OutputStream outputStream) {
+        validateRange(from, to);
+
+        long count = transactionTemplate.execute(status -> write(from, to, outputStream));
+        log.info("Exported {} transactions ({} ~ {})", count, from, to);
+        return count;
+    }
+
+    private long write(LocalDateTime from, LocalDateTime to, OutputStream outputStream) {
+        ObjectWriter writer = objectMapper.writerFor(QueryTransactionResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long count = 0;
+        try (Stream<Transaction> transactions =
+                     transactionRepository.streamByTransactedAt(from, to);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // 값 사이의 기본 구분자(공백) 대신 줄바꿈을 직접 쓴다
+            generator.setRootValueSeparator(null);
+
+            Iterator<Transaction> iterator = transactions.iterator();
+            while (iterator.hasNext()) {
+                Transaction transaction = iterator.next();
+                writer.writeValue(generator,
+                        QueryTransactionResponse.from(TransactionDto.fromEntity(transaction)));
+                generator.writeRaw('\n');
+                entityManager.detach(transaction);
+
+                // 함께 읽힌 계좌까지 fetch size 단위로 비운다
+                if (++count % TransactionRepository.EXPORT_FETCH_SIZE == 0) {
+                    entityManager.clear();
+                    generator.flush();
+                }
+            }
+            generator.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return count;
+    }
+}
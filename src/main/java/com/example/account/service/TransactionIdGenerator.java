@@ -0,0 +1,9 @@
+package com.example.account.service;
+
+/**
+ * 거래 id 생성
+ * account.transaction-id.generator 로 구현을 고른다. (uuid | time-ordered)
+ */
+public interface TransactionIdGenerator {
+    String generate();
+}
@@ -0,0 +1,26 @@
+package com.example.account.service;
+
+import com.example.account.domain.Transaction;
+import com.example.account.dto.JournalRecord;
+
+import java.util.function.Consumer;
+
+/**
+ * 거래 저널 (account.journal.enabled 로 사용 여부를 정한다)
+ */
+public interface TransactionJournal {
+    /**
+     * DB 커밋 직전에 거래를 저널에 남기고, 커밋이 끝나면 커밋 표시를 남긴다. (롤백되면 롤백 표시)
+     */
+    void append(Transaction transaction);
+
+    /**
+     * DB 트랜잭션과 무관하게 바로 저널에 남긴다. (record 의 state 그대로, 기본은 COMMITTED, force 정책은 같다)
+     */
+    void appendRecord(JournalRecord record);
+
+    /**
+     * 커밋 표시가 있는 레코드만 커밋된 순서대로 읽는다.
+     */
+    void readAll(Consumer<JournalRecord> consumer);
+}
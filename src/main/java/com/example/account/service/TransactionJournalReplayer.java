@@ -0,0 +1,160 @@
+package com.example.account.service;
+
+import com.example.account.dto.JournalRecord;
+import com.example.account.repository.AccountRepository;
+import com.example.account.repository.TransactionRepository;
+import com.example.account.type.JournalReplayMode;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * 기동 시 저널과 DB 를 비교
+ * 저널은 커밋 표시가 있는 거래만 읽어 주므로, 저널에는 있는데 DB 에 없는 거래는 DB 에서 사라진 거래이다. (백업 복원 등)
+ * DETECT 면 로그만 남기고, REBUILD 면 저널 내용 그대로 다시 저장한 뒤
+ * 마지막 거래가 빠져 있던 계좌의 잔액을 그 거래의 잔액으로 맞춘다. (InMemoryBalanceLedger 복구와 같다)
+ * 빠진 거래의 계좌가 DB 에 없으면(다른 DB, 새로 만든 스키마) REBUILD 를 하지 않는다.
+ * 기동마다 스키마를 새로 만드는 환경에서는 account.journal.replay 를 NONE 으로 둔다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "account.journal.enabled", havingValue = "true")
+public class TransactionJournalReplayer {
+    private static final int CHUNK_SIZE = 500;
+
+    private final TransactionJournal transactionJournal;
+    private final TransactionRepository transactionRepository;
+    private final AccountRepository accountRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final JournalReplayMode replayMode;
+
+    public TransactionJournalReplayer(
+            TransactionJournal transactionJournal,
+            TransactionRepository transactionRepository,
+            AccountRepository accountRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${account.journal.replay:DETECT}") JournalReplayMode replayMode
+    ) {
+        this.transactionJournal = transactionJournal;
+        this.transactionRepository = transactionRepository;
+        this.accountRepository = accountRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.replayMode = replayMode;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void replayOnStartup() {
+        if (replayMode == JournalReplayMode.NONE) {
+            return;
+        }
+        Result result = replay(replayMode);
+        log.info("Journal replay finished. mode : {}, records : {}, missing : {}, orphaned : {}, rebuilt : {}",
+                replayMode, result.getRecords(), result.getMissing(), result.getOrphaned(), result.getRebuilt());
+    }
+
+    public Result replay(JournalReplayMode mode) {
+        Result detected = scan(JournalReplayMode.DETECT);
+        if (mode != JournalReplayMode.REBUILD || detected.getMissing() == 0) {
+            return detected;
+        }
+        if (detected.getOrphaned() > 0) {
+            log.error("Journal rebuild refused. {} missing records refer to accounts not in DB"
+                    + " (journal from another database or recreated schema)", detected.getOrphaned());
+            return detected;
+        }
+        return scan(JournalReplayMode.REBUILD);
+    }
+
+    private Result scan(JournalReplayMode mode) {
+        Result result = new Result(0L, 0L, 0L, 0L);
+        // 계좌별 마지막 저널 거래가 DB 에 없으면 그 거래의 잔액 (있으면 지운다)
+        Map<Long, Long> balances = new HashMap<>();
+        List<JournalRecord> chunk = new ArrayList<>(CHUNK_SIZE);
+
+        transactionJournal.readAll(record -> {
+            chunk.add(record);
+            if (chunk.size() >= CHUNK_SIZE) {
+                scanChunk(chunk, mode, result, balances);
+                chunk.clear();
+            }
+        });
+        if (!chunk.isEmpty()) {
+            scanChunk(chunk, mode, result, balances);
+        }
+
+        if (mode == JournalReplayMode.REBUILD && !balances.isEmpty()) {
+            LocalDateTime now = LocalDateTime.now();
+            transactionTemplate.executeWithoutResult(status -> balances.forEach((accountId, balance) ->
+                    accountRepository.updateBalance(accountId, balance, now)));
+            log.warn("Restored account balances from journal. accounts : {}", balances.size());
+        }
+        return result;
+    }
+
+    private void scanChunk(List<JournalRecord> chunk, JournalReplayMode mode,
+                           Result result, Map<Long, Long> balances) {
+        result.records += chunk.size();
+
+        Set<String> existing = new HashSet<>(transactionRepository.findExistingTransactionIds(
+                chunk.stream().map(JournalRecord::getTransactionId).collect(Collectors.toList())));
+        List<JournalRecord> missing = new ArrayList<>();
+        for (JournalRecord record : chunk) {
+            if (existing.contains(record.getTransactionId())) {
+                balances.remove(record.getAccountId());
+            } else {
+                balances.put(record.getAccountId(), record.getBalanceSnapshot());
+                missing.add(record);
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        Set<Long> accounts = new HashSet<>(accountRepository.findExistingIds(
+                missing.stream().map(JournalRecord::getAccountId).collect(Collectors.toSet())));
+        List<JournalRecord> rebuildable = new ArrayList<>(missing.size());
+        for (JournalRecord record : missing) {
+            if (accounts.contains(record.getAccountId())) {
+                rebuildable.add(record);
+            } else {
+                result.orphaned++;
+                balances.remove(record.getAccountId());
+            }
+        }
+        result.missing += missing.size();
+
+        if (mode == JournalReplayMode.DETECT) {
+            missing.forEach(record -> log.warn("Journal record missing in DB. sequence : {}, transactionId : {}",
+                    record.getSequence(), record.getTransactionId()));
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(status ->
+                transactionRepository.saveAll(rebuildable.stream()
+                        .map(record -> record.toEntity(
+                                accountRepository.getById(record.getAccountId())))
+                        .collect(Collectors.toList())));
+        result.rebuilt += rebuildable.size();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Result {
+        private long records;
+        private long missing;
+        // DB 에 계좌가 없어서 다시 저장할 수 없는 거래
+        private long orphaned;
+        private long rebuilt;
+    }
+}
@@ -3,47 +3,112 @@ package com.example.account.service;
 import com.example.account.domain.Account;
 import com.example.account.domain.AccountUser;
 import com.example.account.domain.Transaction;
+import com.example.account.dto.AccountSummary;
+import com.example.account.dto.FailedTransaction;
+import com.example.account.dto.TransactionCursor;
 import com.example.account.dto.TransactionDto;
+import com.example.account.dto.TransactionPage;
+import com.example.account.dto.UseBalance;
 import com.example.account.exception.AccountException;
+import com.example.account.profiling.AccountPhases;
 import com.example.account.repository.AccountRepository;
-import com.example.account.repository.AccountUserRepository;
 import com.example.account.repository.TransactionRepository;
+import com.example.account.type.AccountPhase;
 import com.example.account.type.AccountStatus;
 import com.example.account.type.ErrorCode;
 import com.example.account.type.TransactionResultType;
 import com.example.account.type.TransactionType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import javax.transaction.Transactional;
 import java.time.LocalDateTime;
-import java.util.Objects;
-import java.util.UUID;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class TransactionService {
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+
     private final TransactionRepository transactionRepository;
-    private final AccountUserRepository accountUserRepository;
     private final AccountRepository accountRepository;
+    private final TransactionIdGenerator transactionIdGenerator;
+    private final TransactionCache transactionCache;
+    private final AccountCache accountCache;
+    private final TransactionJournal transactionJournal;
+    private final AccountMetrics accountMetrics;
 
-    @Transactional
+    // true 면 잔액 변경을 조건부 UPDATE 로 처리해서 계좌 락 없이도 안전하다
+    @Value("${account.transaction.conditional-update:false}")
+    private boolean conditionalUpdate;
+
+    // 검증 실패는 변경 전에 발생하므로, 바깥 트랜잭션(행 락)에서 실패 거래를 남길 수 있도록 롤백 표시를 하지 않는다
+    @Transactional(dontRollbackOn = AccountException.class)
     public TransactionDto useBalance(Long userId, String accountNumber, Long amount) {
-        AccountUser user = accountUserRepository.findById(userId)
-                .orElseThrow(() -> new AccountException(ErrorCode.USER_NOT_FOUND));
+        if (conditionalUpdate) {
+            return useBalanceConditionally(userId, accountNumber, amount);
+        }
 
-        Account account = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+        AccountUser user = AccountPhases.record(AccountPhase.USER_LOOKUP, accountNumber, () ->
+                accountCache.getUser(userId)
+                        .orElseThrow(() -> new AccountException(ErrorCode.USER_NOT_FOUND)));
+
+        Account account = AccountPhases.record(AccountPhase.ACCOUNT_LOOKUP, accountNumber, () ->
+                accountRepository.findByAccountNumber(accountNumber)
+                        .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND)));
 
-        validateUseBalance(user, account, amount);
+        AccountPhases.run(AccountPhase.VALIDATION, accountNumber, () ->
+                validateUseBalance(user, account, amount));
 
         account.useBalance(amount);
 
         return TransactionDto.fromEntity(saveAndGetTransaction(TransactionType.USE, TransactionResultType.S, account, amount));
     }
 
+    private TransactionDto useBalanceConditionally(Long userId, String accountNumber, Long amount) {
+        int updated = AccountPhases.record(AccountPhase.BALANCE_UPDATE, accountNumber, () ->
+                accountRepository.useBalanceIfSufficient(
+                        accountNumber, userId, amount, LocalDateTime.now()));
+
+        if (updated == 0) {
+            // 차감하지 못한 경우에만 실패 사유를 찾는다 (소유주/상태는 캐시로 확인)
+            AccountUser user = accountCache.getUser(userId)
+                    .orElseThrow(() -> new AccountException(ErrorCode.USER_NOT_FOUND));
+            AccountSummary account = accountCache.getAccount(accountNumber)
+                    .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+
+            validateOwnerAndStatus(user, account);
+
+            // 소유주와 상태가 맞으면 남은 사유는 잔액 부족이다
+            // (캐시가 해지를 아직 모르는 경우도 이번 요청은 실패로 처리된다)
+            throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
+        }
+
+        // 같은 트랜잭션 안이라 방금 차감한 잔액이 그대로 보인다
+        Account account = AccountPhases.record(AccountPhase.ACCOUNT_LOOKUP, accountNumber, () ->
+                accountRepository.findByAccountNumber(accountNumber)
+                        .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND)));
+
+        return TransactionDto.fromEntity(saveAndGetTransaction(TransactionType.USE, TransactionResultType.S, account, amount));
+    }
+
+    private void validateOwnerAndStatus(AccountUser user, AccountSummary account) {
+        if (!Objects.equals(user.getId(), account.getOwnerUserId())) {
+            throw new AccountException(ErrorCode.USER_ACCOUNT_UNMATCHED);
+        }
+
+        if (account.getAccountStatus() == AccountStatus.UNREGISTERED) {
+            throw new AccountException(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED);
+        }
+    }
+
     private void validateUseBalance(AccountUser user, Account account, Long amount) {
         if (!Objects.equals(user.getId(), account.getAccountUser().getId())) {
             throw new AccountException(ErrorCode.USER_ACCOUNT_UNMATCHED);
@@ -58,6 +123,56 @@ public class TransactionService {
         }
     }
 
+    /**
+     * 한 계좌에 대한 여러 건의 잔액 사용을 요청 순서대로 하나의 트랜잭션에서 처리
+     * 건별 실패는 실패 거래로 기록하고 다음 건을 계속 처리한다.
+     */
+    @Transactional
+    public List<TransactionDto> useBalances(String accountNumber, List<UseBalance.Request> requests) {
+        Optional<Account> optionalAccount = accountRepository.findByAccountNumber(accountNumber);
+        if (optionalAccount.isEmpty()) {
+            return requests.stream()
+                    .map(request -> TransactionDto.unrecordedFailure(
+                            TransactionType.USE, accountNumber, request.getAmount()))
+                    .collect(Collectors.toList());
+        }
+
+        Account account = optionalAccount.get();
+        List<TransactionDto> results = new ArrayList<>(requests.size());
+        for (UseBalance.Request request : requests) {
+            results.add(useBalanceInBatch(account, request));
+        }
+        return results;
+    }
+
+    private TransactionDto useBalanceInBatch(Account account, UseBalance.Request request) {
+        try {
+            if (conditionalUpdate) {
+                return useBalanceConditionally(request.getUserId(),
+                        account.getAccountNumber(), request.getAmount());
+            }
+
+            AccountUser user = accountCache.getUser(request.getUserId())
+                    .orElseThrow(() -> new AccountException(ErrorCode.USER_NOT_FOUND));
+
+            validateUseBalance(user, account, request.getAmount());
+
+            account.useBalance(request.getAmount());
+
+            return TransactionDto.fromEntity(saveAndGetTransaction(
+                    TransactionType.USE, TransactionResultType.S, account, request.getAmount(), false));
+        } catch (AccountException e) {
+            log.error("Failed to use balance in batch. {}", e.getErrorCode());
+
+            // 조건부 UPDATE 모드에서는 영속성 컨텍스트가 비워지므로 계좌를 다시 읽어 기록한다
+            Account failedAccount = conditionalUpdate
+                    ? accountRepository.findByAccountNumber(account.getAccountNumber()).orElse(account)
+                    : account;
+            return TransactionDto.fromEntity(saveAndGetTransaction(
+                    TransactionType.USE, TransactionResultType.F, failedAccount, request.getAmount(), false));
+        }
+    }
+
     @Transactional
     public void saveFailedUseTransaction(String accountNumber, Long amount) {
         Account account = accountRepository.findByAccountNumber(accountNumber)
@@ -67,38 +182,120 @@ public class TransactionService {
         saveAndGetTransaction(TransactionType.USE, TransactionResultType.F, account, amount);
     }
 
+    /**
+     * 비동기로 모아 둔 실패 거래를 한 번에 저장 (JDBC batch insert)
+     * 그 사이 계좌가 사라진 건은 기록할 수 없으므로 건너뛴다.
+     */
+    @Transactional
+    public void saveFailedTransactions(List<FailedTransaction> failedTransactions) {
+        Set<String> accountNumbers = failedTransactions.stream()
+                .map(FailedTransaction::getAccountNumber)
+                .collect(Collectors.toSet());
+        Map<String, Account> accounts = accountRepository.findByAccountNumberIn(accountNumbers)
+                .stream()
+                .collect(Collectors.toMap(Account::getAccountNumber, Function.identity(),
+                        (first, second) -> first));
+
+        List<Transaction> transactions = new ArrayList<>(failedTransactions.size());
+        for (FailedTransaction failedTransaction : failedTransactions) {
+            Account account = accounts.get(failedTransaction.getAccountNumber());
+            if (account == null) {
+                log.error("Skip failed transaction of unknown account. {}",
+                        failedTransaction.getAccountNumber());
+                continue;
+            }
+            transactions.add(buildTransaction(
+                    failedTransaction.getTransactionType(),
+                    TransactionResultType.F,
+                    account,
+                    failedTransaction.getAmount(),
+                    failedTransaction.getFailedAt()));
+        }
+
+        transactionRepository.saveAll(transactions);
+        transactions.forEach(transaction -> accountMetrics.recordTransactionAfterCommit(
+                transaction.getTransactionType(), TransactionResultType.F));
+    }
+
     private Transaction saveAndGetTransaction(
             TransactionType transactionType,
             TransactionResultType transactionResultType,
             Account account,
             Long amount) {
-        return transactionRepository.save(
-                Transaction.builder()
-                        .transactionType(transactionType)
-                        .transactionResultType(transactionResultType)
-                        .account(account)
-                        .amount(amount)
-                        .balanceSnapshot(account.getBalance())
-                        .transactionId(UUID.randomUUID()
-                                .toString().replace("-", ""))
-                        .transactedAt(LocalDateTime.now())
-                        .build()
-        );
+        return saveAndGetTransaction(transactionType, transactionResultType, account, amount, true);
     }
 
-    @Transactional
+    /**
+     * id 는 미리 받아 둔 시퀀스에서 오므로 save 만으로는 INSERT 가 나가지 않는다.
+     * 단건 거래는 단계 안에서 flush 해서 INSERT(와 계좌 잔액 UPDATE)까지 잰다.
+     * 일괄 처리는 JDBC 배치로 커밋 때 한 번에 INSERT 하도록 flush 하지 않는다.
+     */
+    private Transaction saveAndGetTransaction(
+            TransactionType transactionType,
+            TransactionResultType transactionResultType,
+            Account account,
+            Long amount,
+            boolean flush) {
+        Transaction transaction = AccountPhases.record(AccountPhase.TRANSACTION_INSERT,
+                account.getAccountNumber(), () -> {
+                    Transaction built = buildTransaction(transactionType, transactionResultType,
+                            account, amount, LocalDateTime.now());
+                    return flush
+                            ? transactionRepository.saveAndFlush(built)
+                            : transactionRepository.save(built);
+                });
+        transactionJournal.append(transaction);
+        transactionCache.put(TransactionDto.fromEntity(transaction));
+        accountMetrics.recordTransactionAfterCommit(transactionType, transactionResultType);
+
+        return transaction;
+    }
+
+    private Transaction buildTransaction(
+            TransactionType transactionType,
+            TransactionResultType transactionResultType,
+            Account account,
+            Long amount,
+            LocalDateTime transactedAt) {
+        return Transaction.builder()
+                .transactionType(transactionType)
+                .transactionResultType(transactionResultType)
+                .account(account)
+                .amount(amount)
+                .balanceSnapshot(account.getBalance())
+                .transactionId(transactionIdGenerator.generate())
+                .transactedAt(transactedAt)
+                .build();
+    }
+
+    @Transactional(dontRollbackOn = AccountException.class)
     public TransactionDto cancelBalance(String transactionId, String accountNumber, Long amount) {
-        Transaction transaction = transactionRepository.findByTransactionId(transactionId)
-                .orElseThrow(() -> new AccountException(ErrorCode.TRANSACTION_NOT_FOUND));
-        Account account = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+        Transaction transaction = AccountPhases.record(AccountPhase.TRANSACTION_LOOKUP, accountNumber, () ->
+                transactionRepository.findByTransactionId(transactionId)
+                        .orElseThrow(() -> new AccountException(ErrorCode.TRANSACTION_NOT_FOUND)));
+        // 계좌번호 -> id 는 캐시에서 찾고 id 로 읽는다
+        // 취소 대상 거래와 같은 계좌면 위에서 함께 읽혀 영속성 컨텍스트에 있으므로 다시 조회하지 않는다
+        Account account = AccountPhases.record(AccountPhase.ACCOUNT_LOOKUP, accountNumber, () ->
+                accountCache.getAccount(accountNumber)
+                        .flatMap(summary -> accountRepository.findById(summary.getAccountId()))
+                        .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND)));
 
-        validateCancelBalance(transaction, account, amount);
+        AccountPhases.run(AccountPhase.VALIDATION, accountNumber, () ->
+                validateCancelBalance(transaction, account, amount));
 
-        account.cancelBalance(amount);
+        Account cancelledAccount;
+        if (conditionalUpdate) {
+            AccountPhases.run(AccountPhase.BALANCE_UPDATE, accountNumber, () ->
+                    accountRepository.addBalance(accountNumber, amount, LocalDateTime.now()));
+            cancelledAccount = accountRepository.findByAccountNumber(accountNumber)
+                    .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+        } else {
+            account.cancelBalance(amount);
+            cancelledAccount = account;
+        }
 
         return TransactionDto.fromEntity(
-                saveAndGetTransaction(TransactionType.CANCEL, TransactionResultType.S, account, amount)
+                saveAndGetTransaction(TransactionType.CANCEL, TransactionResultType.S, cancelledAccount, amount)
         );
     }
 
@@ -121,10 +318,60 @@ public class TransactionService {
         saveAndGetTransaction(TransactionType.CANCEL, TransactionResultType.F, account, amount);
     }
 
+    /**
+     * 계좌 거래 내역 (최신순, keyset 페이징)
+     * 다음 페이지가 있는지 알기 위해 size 보다 한 건 더 읽는다.
+     */
+    @Transactional
+    public TransactionPage getTransactions(String accountNumber,
+                                           String cursor,
+                                           int size,
+                                           TransactionType transactionType,
+                                           TransactionResultType transactionResultType) {
+        if (size < 1 || size > MAX_HISTORY_PAGE_SIZE) {
+            throw new AccountException(ErrorCode.INVALID_REQUEST);
+        }
+        AccountSummary account = accountCache.getAccount(accountNumber)
+                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+
+        Pageable pageable = PageRequest.of(0, size + 1);
+        List<Transaction> transactions;
+        if (cursor == null) {
+            transactions = transactionRepository.findHistory(account.getAccountId(),
+                    transactionType, transactionResultType, pageable);
+        } else {
+            TransactionCursor after = TransactionCursor.decode(cursor);
+            transactions = transactionRepository.findHistoryAfter(account.getAccountId(),
+                    transactionType, transactionResultType,
+                    after.getTransactedAt(), after.getId(), pageable);
+        }
+
+        String nextCursor = null;
+        if (transactions.size() > size) {
+            transactions = transactions.subList(0, size);
+            nextCursor = TransactionCursor.of(transactions.get(size - 1)).encode();
+        }
+
+        return TransactionPage.builder()
+                .transactions(transactions.stream()
+                        .map(TransactionDto::fromEntity)
+                        .collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .build();
+    }
+
     public TransactionDto queryTransaction(String transactionId) {
-        return TransactionDto.fromEntity(
+        Optional<TransactionDto> cached = transactionCache.get(transactionId);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        TransactionDto transactionDto = TransactionDto.fromEntity(
                 transactionRepository.findByTransactionId(transactionId)
                         .orElseThrow(() -> new AccountException(ErrorCode.TRANSACTION_NOT_FOUND))
         );
+        transactionCache.put(transactionDto);
+
+        return transactionDto;
     }
 }
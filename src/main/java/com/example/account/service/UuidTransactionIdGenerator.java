@@ -0,0 +1,19 @@
+package com.example.account.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * 기존 방식의 32자리 랜덤 UUID
+ */
+@Component
+@ConditionalOnProperty(name = "account.transaction-id.generator",
+        havingValue = "uuid", matchIfMissing = true)
+public class UuidTransactionIdGenerator implements TransactionIdGenerator {
+    @Override
+    public String generate() {
+        return UUID.randomUUID().toString().replace("-", "");
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.account.type;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 요청 처리 단계 (JFR AccountPhaseEvent 의 phase, Server-Timing 항목)
+ */
+@Getter
+@AllArgsConstructor
+public enum AccountPhase {
+    LOCK("lock"),
+    USER_LOOKUP("db-read"),
+    ACCOUNT_LOOKUP("db-read"),
+    TRANSACTION_LOOKUP("db-read"),
+    VALIDATION("validate"),
+    BALANCE_UPDATE("db-write"),
+    TRANSACTION_INSERT("db-write"),
+    ACCOUNT_INSERT("db-write"),
+    ACCOUNT_UPDATE("db-write");
+
+    private final String serverTimingName;
+}
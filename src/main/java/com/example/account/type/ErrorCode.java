@@ -19,6 +19,12 @@ public enum ErrorCode {
     TRANSACTION_ACCOUNT_UN_MATCH("이 거래는 해당 계좌에서 발생한 거래가 아닙니다."),
     TOO_OLD_ORDER_TO_CANCEL("1년이 지난 거래는 취소가 불가능합니다."),
     ACCOUNT_TRANSACTION_LOCK("해당 계좌는 사용 중입니다."),
+    ACCOUNT_NUMBER_EXHAUSTED("발급 가능한 계좌번호가 없습니다."),
+    RECONCILIATION_IN_PROGRESS("잔액 대사가 이미 진행 중입니다."),
+    LEDGER_ACCOUNT_NOT_DELETABLE("메모리 원장에서 관리 중인 계좌는 해지할 수 없습니다."),
+    ASYNC_EXECUTOR_BUSY("처리 대기 중인 요청이 많습니다. 잠시 후 다시 시도하세요."),
+    RECORDING_ALREADY_RUNNING("JFR 기록이 이미 진행 중입니다."),
+    RECORDING_NOT_FOUND("JFR 기록이 없습니다."),
     INVALID_REQUEST("올바른 요청이 아닙니다.");
 
     private final String description;
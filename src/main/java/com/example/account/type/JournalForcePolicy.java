@@ -0,0 +1,13 @@
+package com.example.account.type;
+
+/**
+ * 저널을 디스크에 강제로 내리는(force/fsync) 시점
+ */
+public enum JournalForcePolicy {
+    // OS 에 맡긴다 (프로세스 장애에는 안전, 전원 장애에는 유실 가능)
+    NONE,
+    // force-batch-size 건마다
+    BATCH,
+    // 매 건마다
+    EVERY_RECORD
+}
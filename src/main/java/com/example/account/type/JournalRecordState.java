@@ -0,0 +1,14 @@
+package com.example.account.type;
+
+/**
+ * 저널 레코드가 DB 트랜잭션의 어느 단계에서 쓰였는지
+ * 저널 파일에는 ordinal 로 저장되므로 순서를 바꾸지 않는다. (상태 바이트가 없던 레코드는 0, COMMITTED 로 읽힌다)
+ */
+public enum JournalRecordState {
+    // DB 커밋이 끝났다 (DB 트랜잭션 없이 바로 쓴 레코드 포함)
+    COMMITTED,
+    // DB 커밋 직전 (beforeCommit)
+    PREPARED,
+    // DB 커밋이 실패해서 롤백되었다
+    ABORTED
+}
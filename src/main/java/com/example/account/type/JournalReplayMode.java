@@ -0,0 +1,12 @@
+package com.example.account.type;
+
+/**
+ * 기동 시 저널과 DB 를 비교하는 방법
+ */
+public enum JournalReplayMode {
+    NONE,
+    // DB 에 없는 거래를 로그로만 남긴다
+    DETECT,
+    // DB 에 없는 거래를 저널 내용으로 다시 저장한다
+    REBUILD
+}
@@ -0,0 +1,26 @@
+package com.example.account.type;
+
+/**
+ * @AccountLock 을 어느 락 전략에서 적용할지
+ * SINGLE_WRITER 는 감싼 작업 전체를 계좌 shard 스레드에서 실행하므로
+ * 대기나 실패 기록이 들어 있는 요청 전체가 아니라 계좌 작업만 감싸야 한다.
+ */
+public enum LockScope {
+    // 모든 전략
+    ALL,
+    // 요청 전체 (컨트롤러), SINGLE_WRITER 면 건너뛴다
+    REQUEST,
+    // 계좌 작업만 (LockedTransactionService), SINGLE_WRITER 일 때만 잡는다
+    ACCOUNT_WORK;
+
+    public boolean appliesTo(LockType lockType) {
+        switch (this) {
+            case REQUEST:
+                return lockType != LockType.SINGLE_WRITER;
+            case ACCOUNT_WORK:
+                return lockType == LockType.SINGLE_WRITER;
+            default:
+                return true;
+        }
+    }
+}
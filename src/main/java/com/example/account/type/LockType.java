@@ -0,0 +1,11 @@
+package com.example.account.type;
+
+public enum LockType {
+    DEFAULT,
+    REDIS,
+    LOCAL,
+    PESSIMISTIC,
+    OPTIMISTIC,
+    SINGLE_WRITER,
+    NONE
+}
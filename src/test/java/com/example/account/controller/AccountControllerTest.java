@@ -1,6 +1,7 @@
 package com.example.account.controller;
 
 import com.example.account.dto.AccountDto;
+import com.example.account.dto.AccountInfo;
 import com.example.account.dto.CreateAccount;
 import com.example.account.dto.DeleteAccount;
 import com.example.account.exception.AccountException;
@@ -92,20 +93,14 @@ class AccountControllerTest {
     @Test
     void successGetAccountsByUserId() throws Exception {
         //given
-        List<AccountDto> accountDtos =
+        List<AccountInfo> accountInfos =
                 Arrays.asList(
-                        AccountDto.builder()
-                                .accountNumber("1234567890")
-                                .balance(1000L).build(),
-                        AccountDto.builder()
-                                .accountNumber("9876543210")
-                                .balance(2000L).build(),
-                        AccountDto.builder()
-                                .accountNumber("4561237890")
-                                .balance(3000L).build()
+                        new AccountInfo("1234567890", 1000L),
+                        new AccountInfo("9876543210", 2000L),
+                        new AccountInfo("4561237890", 3000L)
                 );
-        given(accountService.getAccountsByUserId(anyLong()))
-                .willReturn(accountDtos);
+        given(accountService.getAccountInfosByUserId(anyLong()))
+                .willReturn(accountInfos);
 
         //when
         //then
@@ -0,0 +1,92 @@
+package com.example.account.controller;
+
+import com.example.account.dto.CancelBalance;
+import com.example.account.dto.TransactionDto;
+import com.example.account.dto.UseBalance;
+import com.example.account.exception.AccountException;
+import com.example.account.service.AsyncTransactionService;
+import com.example.account.type.ErrorCode;
+import com.example.account.type.TransactionResultType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(AsyncTransactionController.class)
+class AsyncTransactionControllerTest {
+    @MockBean
+    private AsyncTransactionService asyncTransactionService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void successUseBalance() throws Exception {
+        //given
+        given(asyncTransactionService.useBalance(anyLong(), anyString(), anyLong()))
+                .willReturn(CompletableFuture.completedFuture(TransactionDto.builder()
+                        .accountNumber("1234567890")
+                        .transactedAt(LocalDateTime.now())
+                        .amount(12345L)
+                        .transactionId("transactionId")
+                        .transactionResultType(TransactionResultType.S)
+                        .build()));
+
+        MvcResult result = mockMvc.perform(post("/async/transaction/use")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new UseBalance.Request(1L, "9876543210", 1000L))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //when
+        //then
+        mockMvc.perform(asyncDispatch(result))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accountNumber").value("1234567890"))
+                .andExpect(jsonPath("$.amount").value(12345))
+                .andExpect(jsonPath("$.transactionResult").value("S"));
+    }
+
+    @Test
+    void failCancelBalance() throws Exception {
+        //given
+        given(asyncTransactionService.cancelBalance(anyString(), anyString(), anyLong()))
+                .willReturn(CompletableFuture.failedFuture(
+                        new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK)));
+
+        MvcResult result = mockMvc.perform(post("/async/transaction/cancel")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new CancelBalance.Request("transactionId", "9876543210", 1000L))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //when
+        //then
+        mockMvc.perform(asyncDispatch(result))
+                .andDo(print())
+                .andExpect(jsonPath("$.errorCode").value("ACCOUNT_TRANSACTION_LOCK"));
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.account.controller;
+
+import com.example.account.dto.RecordingStatus;
+import com.example.account.exception.AccountException;
+import com.example.account.service.FlightRecordingService;
+import com.example.account.type.ErrorCode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = ProfilingController.class, properties = "account.profiling.endpoint-enabled=true")
+class ProfilingControllerTest {
+    @MockBean
+    private FlightRecordingService flightRecordingService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void successStartRecording() throws Exception {
+        //given
+        given(flightRecordingService.start())
+                .willReturn(RecordingStatus.builder()
+                        .id(1L)
+                        .name("account")
+                        .state("RUNNING")
+                        .startTime(Instant.now())
+                        .maxAgeSeconds(1800L)
+                        .build());
+
+        //when
+        //then
+        mockMvc.perform(post("/profiling/recording/start"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("account"))
+                .andExpect(jsonPath("$.state").value("RUNNING"))
+                .andExpect(jsonPath("$.maxAgeSeconds").value(1800));
+    }
+
+    @Test
+    void failDumpRecording_NotStarted() throws Exception {
+        //given
+        given(flightRecordingService.getStatus())
+                .willThrow(new AccountException(ErrorCode.RECORDING_NOT_FOUND));
+
+        //when
+        //then
+        mockMvc.perform(get("/profiling/recording/dump"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.errorCode").value("RECORDING_NOT_FOUND"));
+    }
+}
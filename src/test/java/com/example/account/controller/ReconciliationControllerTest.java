@@ -0,0 +1,77 @@
+package com.example.account.controller;
+
+import com.example.account.dto.AccountDrift;
+import com.example.account.dto.ReconciliationReport;
+import com.example.account.service.ReconciliationService;
+import com.example.account.type.ReconciliationStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = ReconciliationController.class,
+        properties = "account.reconciliation.endpoint-enabled=true")
+class ReconciliationControllerTest {
+    @MockBean
+    private ReconciliationService reconciliationService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void successStartReconciliation() throws Exception {
+        //given
+        given(reconciliationService.start())
+                .willReturn(ReconciliationReport.builder()
+                        .status(ReconciliationStatus.RUNNING)
+                        .startedAt(LocalDateTime.now())
+                        .drifts(Collections.emptyList())
+                        .build());
+
+        //when
+        //then
+        mockMvc.perform(post("/reconciliation"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("RUNNING"));
+    }
+
+    @Test
+    void successGetReconciliation() throws Exception {
+        //given
+        given(reconciliationService.getReport())
+                .willReturn(Optional.of(ReconciliationReport.builder()
+                        .status(ReconciliationStatus.COMPLETED)
+                        .totalChunks(10)
+                        .completedChunks(10)
+                        .driftCount(1)
+                        .drifts(Collections.singletonList(AccountDrift.builder()
+                                .accountNumber("1000000000")
+                                .storedBalance(1001L)
+                                .replayedBalance(1000L)
+                                .latestSnapshot(1000L)
+                                .build()))
+                        .build()));
+
+        //when
+        //then
+        mockMvc.perform(get("/reconciliation"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.completedChunks").value(10))
+                .andExpect(jsonPath("$.drifts[0].accountNumber").value("1000000000"))
+                .andExpect(jsonPath("$.drifts[0].storedBalance").value(1001));
+    }
+}
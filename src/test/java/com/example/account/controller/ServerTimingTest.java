@@ -0,0 +1,63 @@
+package com.example.account.controller;
+
+import com.example.account.config.ServerTimingConfiguration;
+import com.example.account.exception.AccountException;
+import com.example.account.profiling.AccountPhases;
+import com.example.account.service.AccountService;
+import com.example.account.type.AccountPhase;
+import com.example.account.type.ErrorCode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Collections;
+
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+
+@WebMvcTest(controllers = AccountController.class, properties = "account.server-timing.enabled=true")
+@Import(ServerTimingConfiguration.class)
+class ServerTimingTest {
+    @MockBean
+    private AccountService accountService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void serverTimingHeaderOnAccountResponse() throws Exception {
+        //given
+        given(accountService.getAccountInfosByUserId(1L))
+                .willAnswer(invocation -> AccountPhases.record(
+                        AccountPhase.ACCOUNT_LOOKUP, null, Collections::emptyList));
+
+        //when
+        //then
+        mockMvc.perform(get("/account?user_id=1"))
+                .andDo(print())
+                .andExpect(header().string("Server-Timing",
+                        matchesPattern("db-read;dur=[0-9.]+, total;dur=[0-9.]+")));
+    }
+
+    @Test
+    void serverTimingHeaderOnErrorResponse() throws Exception {
+        //given
+        given(accountService.getAccount(anyLong()))
+                .willThrow(new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+
+        //when
+        //then
+        mockMvc.perform(get("/account/876"))
+                .andDo(print())
+                .andExpect(jsonPath("$.errorCode").value("ACCOUNT_NOT_FOUND"))
+                .andExpect(header().string("Server-Timing", matchesPattern("total;dur=[0-9.]+")));
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.account.controller;
+
+import com.example.account.domain.Account;
+import com.example.account.domain.Transaction;
+import com.example.account.dto.CancelBalance;
+import com.example.account.dto.UseBalance;
+import com.example.account.repository.AccountRepository;
+import com.example.account.repository.AccountUserRepository;
+import com.example.account.repository.TransactionRepository;
+import com.example.account.type.AccountStatus;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 엔드포인트별 SQL 실행 횟수
+ * 사용자/계좌 캐시 적재가 섞이지 않도록 한 번 호출한 뒤에 센다.
+ * 시퀀스 조회는 increment-size 경계를 언제 넘는지(앞서 넣은 행 수)에 따라 달라지므로
+ * select/insert/update/delete 만 센다.
+ */
+@SpringBootTest(properties = {
+        "spring.redis.port=6383",
+        "spring.datasource.url=jdbc:h2:mem:sqlcount",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.example.account.controller.SqlStatementCountTest$DmlStatementCounter"
+})
+class SqlStatementCountTest {
+    private static final AtomicLong ACCOUNT_NUMBERS = new AtomicLong(8_000_000_000L);
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private AccountUserRepository accountUserRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private MockMvc mockMvc;
+    private Account account;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+
+        account = accountRepository.save(Account.builder()
+                .accountUser(accountUserRepository.findById(1L).get())
+                .accountNumber(String.valueOf(ACCOUNT_NUMBERS.incrementAndGet()))
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(100_000L)
+                .registeredAt(LocalDateTime.now())
+                .build());
+    }
+
+    @Test
+    void getAccountsByUserId() throws Exception {
+        mockMvc.perform(get("/account?user_id=1"));
+
+        DmlStatementCounter.reset();
+        mockMvc.perform(get("/account?user_id=1"))
+                .andExpect(status().isOk());
+
+        // projection 1
+        assertEquals(1, DmlStatementCounter.count());
+    }
+
+    @Test
+    void getAccountById() throws Exception {
+        DmlStatementCounter.reset();
+        mockMvc.perform(get("/account/" + account.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.userId").value(1));
+
+        // account 1 (사용자는 조회하지 않음)
+        assertEquals(1, DmlStatementCounter.count());
+    }
+
+    @Test
+    void useBalance() throws Exception {
+        useBalance(100L);
+
+        DmlStatementCounter.reset();
+        useBalance(100L);
+
+        // account select, transaction insert, account update
+        assertEquals(3, DmlStatementCounter.count());
+    }
+
+    @Test
+    void cancelBalance() throws Exception {
+        cancelBalance(useBalance(100L), 100L);
+        String transactionId = useBalance(200L);
+
+        DmlStatementCounter.reset();
+        cancelBalance(transactionId, 200L)
+                .andExpect(jsonPath("$.transactionResult").value("S"));
+
+        // transaction + account fetch join, transaction insert, account update
+        // (계좌는 캐시의 id 로 찾으므로 fetch join 으로 읽힌 엔티티를 그대로 쓴다)
+        assertEquals(3, DmlStatementCounter.count());
+    }
+
+    @Test
+    void queryTransaction() throws Exception {
+        String cachedTransactionId = useBalance(100L);
+        Transaction uncached = transactionRepository.save(Transaction.builder()
+                .account(account)
+                .transactionType(TransactionType.USE)
+                .transactionResultType(TransactionResultType.S)
+                .amount(100L)
+                .balanceSnapshot(99_900L)
+                .transactionId("sqlcount" + account.getAccountNumber())
+                .transactedAt(LocalDateTime.now())
+                .build());
+
+        DmlStatementCounter.reset();
+        mockMvc.perform(get("/transaction/" + cachedTransactionId))
+                .andExpect(status().isOk());
+        assertEquals(0, DmlStatementCounter.count());
+
+        DmlStatementCounter.reset();
+        mockMvc.perform(get("/transaction/" + uncached.getTransactionId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accountNumber").value(account.getAccountNumber()));
+        // transaction + account fetch join
+        assertEquals(1, DmlStatementCounter.count());
+    }
+
+    private String useBalance(Long amount) throws Exception {
+        String response = mockMvc.perform(post("/transaction/use")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new UseBalance.Request(1L, account.getAccountNumber(), amount))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode body = objectMapper.readTree(response);
+        assertEquals("S", body.get("transactionResult").asText());
+        return body.get("transactionId").asText();
+    }
+
+    private ResultActions cancelBalance(String transactionId, Long amount) throws Exception {
+        return mockMvc.perform(post("/transaction/cancel")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new CancelBalance.Request(transactionId,
+                                        account.getAccountNumber(), amount))))
+                .andExpect(status().isOk());
+    }
+
+    public static class DmlStatementCounter implements StatementInspector {
+        private static final AtomicInteger COUNT = new AtomicInteger();
+
+        static void reset() {
+            COUNT.set(0);
+        }
+
+        static int count() {
+            return COUNT.get();
+        }
+
+        @Override
+        public String inspect(String sql) {
+            String statement = sql.trim().toLowerCase(Locale.ROOT);
+            if (statement.startsWith("select") || statement.startsWith("insert")
+                    || statement.startsWith("update") || statement.startsWith("delete")) {
+                COUNT.incrementAndGet();
+            }
+            return sql;
+        }
+    }
+}
@@ -3,7 +3,13 @@ package com.example.account.controller;
 import com.example.account.dto.AccountDto;
 import com.example.account.dto.CancelBalance;
 import com.example.account.dto.TransactionDto;
+import com.example.account.dto.TransactionPage;
 import com.example.account.dto.UseBalance;
+import com.example.account.dto.UseBalanceBatch;
+import com.example.account.service.FailedTransactionRecorder;
+import com.example.account.service.LockedTransactionService;
+import com.example.account.service.TransactionBatchService;
+import com.example.account.service.TransactionExportService;
 import com.example.account.service.TransactionService;
 import com.example.account.type.TransactionResultType;
 import com.example.account.type.TransactionType;
@@ -14,19 +20,27 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(TransactionController.class)
@@ -34,6 +48,18 @@ class TransactionControllerTest {
     @MockBean
     private TransactionService transactionService;
 
+    @MockBean
+    private LockedTransactionService lockedTransactionService;
+
+    @MockBean
+    private TransactionBatchService transactionBatchService;
+
+    @MockBean
+    private FailedTransactionRecorder failedTransactionRecorder;
+
+    @MockBean
+    private TransactionExportService transactionExportService;
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -43,7 +69,7 @@ class TransactionControllerTest {
     @Test
     void successUseBalance() throws Exception {
         //given
-        given(transactionService.useBalance(anyLong(), anyString(), anyLong()))
+        given(lockedTransactionService.useBalance(any()))
                 .willReturn(TransactionDto.builder()
                         .accountNumber("1234567890")
                         .transactedAt(LocalDateTime.now())
@@ -72,7 +98,7 @@ class TransactionControllerTest {
     @Test
     void successCancelBalance() throws Exception {
         //given
-        given(transactionService.cancelBalance(anyString(), anyString(), anyLong()))
+        given(lockedTransactionService.cancelBalance(any()))
                 .willReturn(TransactionDto.builder()
                         .accountNumber("1234567890")
                         .transactedAt(LocalDateTime.now())
@@ -123,4 +149,91 @@ class TransactionControllerTest {
                 .andExpect(jsonPath("$.transactionResult").value("S"));
 
     }
-}
\ No newline at end of file
+
+    @Test
+    void successUseBalances() throws Exception {
+        //given
+        given(transactionBatchService.useBalances(anyList()))
+                .willReturn(Arrays.asList(
+                        TransactionDto.builder()
+                                .accountNumber("1234567890")
+                                .transactedAt(LocalDateTime.now())
+                                .amount(1000L)
+                                .transactionId("transactionId1")
+                                .transactionResultType(TransactionResultType.S)
+                                .build(),
+                        TransactionDto.builder()
+                                .accountNumber("1234567890")
+                                .transactedAt(LocalDateTime.now())
+                                .amount(2000L)
+                                .transactionId("transactionId2")
+                                .transactionResultType(TransactionResultType.F)
+                                .build()));
+
+        //when
+        //then
+        mockMvc.perform(post("/transaction/use/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new UseBalanceBatch.Request(Arrays.asList(
+                                        new UseBalance.Request(1L, "1234567890", 1000L),
+                                        new UseBalance.Request(1L, "1234567890", 2000L)
+                                ))
+                        ))
+                ).andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].transactionId").value("transactionId1"))
+                .andExpect(jsonPath("$[0].transactionResult").value("S"))
+                .andExpect(jsonPath("$[1].transactionId").value("transactionId2"))
+                .andExpect(jsonPath("$[1].amount").value(2000))
+                .andExpect(jsonPath("$[1].transactionResult").value("F"));
+    }
+
+    @Test
+    void successGetTransactions() throws Exception {
+        //given
+        given(transactionService.getTransactions(anyString(), any(), anyInt(), any(), any()))
+                .willReturn(TransactionPage.builder()
+                        .transactions(Arrays.asList(
+                                TransactionDto.builder()
+                                        .accountNumber("1000000000")
+                                        .transactionType(TransactionType.USE)
+                                        .transactionResultType(TransactionResultType.S)
+                                        .transactionId("transactionId")
+                                        .amount(1000L)
+                                        .transactedAt(LocalDateTime.now())
+                                        .build()))
+                        .nextCursor("nextCursor")
+                        .build());
+
+        //when
+        //then
+        mockMvc.perform(get("/account/1000000000/transactions?size=1&type=USE"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accountNumber").value("1000000000"))
+                .andExpect(jsonPath("$.transactions[0].transactionId").value("transactionId"))
+                .andExpect(jsonPath("$.transactions[0].transactionResult").value("S"))
+                .andExpect(jsonPath("$.nextCursor").value("nextCursor"));
+    }
+
+    @Test
+    void successExportTransactions() throws Exception {
+        //given
+        MvcResult result = mockMvc.perform(get("/transaction/export")
+                        .param("from", "2022-06-01T00:00:00")
+                        .param("to", "2022-06-02T00:00:00"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //when
+        //then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON));
+        verify(transactionExportService).export(
+                eq(LocalDateTime.of(2022, 6, 1, 0, 0)),
+                eq(LocalDateTime.of(2022, 6, 2, 0, 0)),
+                any());
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.account.controller;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 동시 요청 수에 따른 /transaction/use 처리량과 지연 (./gradlew benchmark)
+ * 요청마다 다른 계좌를 써서 계좌 락 경합 없이 요청 스레드 모델만 비교한다.
+ * 플랫폼 스레드 : ./gradlew benchmark --tests '*TransactionLoadBenchmarkTest'
+ * 가상 스레드   : ./gradlew benchmark --tests '*TransactionLoadBenchmarkTest' -PjavaVersion=21 -Dspring.profiles.active=virtual-threads
+ * 동시 요청 수는 -Dbenchmark.load.concurrency=1000,10000,50000 로 정한다.
+ * (50,000 은 클라이언트 임시 포트 범위(net.ipv4.ip_local_port_range)를 넓혀야 한다)
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.redis.port=6381",
+        "spring.datasource.url=jdbc:h2:mem:load-benchmark",
+        "spring.jpa.properties.hibernate.show_sql=false",
+        "spring.jpa.properties.hibernate.format_sql=false",
+        "server.tomcat.max-connections=100000",
+        "server.tomcat.accept-count=10000",
+        "logging.level.com.example.account=WARN"
+})
+class TransactionLoadBenchmarkTest {
+    private static final String CONCURRENCY = System.getProperty("benchmark.load.concurrency", "1000,10000,50000");
+    private static final long TIMEOUT_SECONDS = Long.getLong("benchmark.load.timeout-seconds", 120L);
+    private static final long ID_OFFSET = 200_000_000L;
+    private static final long ACCOUNT_NUMBER_OFFSET = 7_000_000_000L;
+    private static final long OPENING_BALANCE = 1_000_000L;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${account.virtual-threads.enabled:false}")
+    private boolean virtualThreads;
+
+    @Test
+    void useBalanceUnderConcurrentLoad() {
+        int[] levels = Arrays.stream(CONCURRENCY.split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        int accounts = Arrays.stream(levels).max().orElse(0);
+        jdbcTemplate.update("insert into account"
+                        + " (id, account_user_id, account_number, account_status, balance, opening_balance, version,"
+                        + " registered_at, created_at, updated_at)"
+                        + " select x + ?, 1, cast(? + x as varchar), 'IN_USE', ?, ?, 0, ?, now(), now()"
+                        + " from system_range(0, ?)",
+                ID_OFFSET, ACCOUNT_NUMBER_OFFSET, OPENING_BALANCE, OPENING_BALANCE, LocalDateTime.now(), accounts - 1);
+
+        ExecutorService clientExecutor = Executors.newFixedThreadPool(8);
+        try {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(clientExecutor)
+                    .build();
+            for (int concurrency : levels) {
+                run(client, concurrency);
+            }
+        } finally {
+            clientExecutor.shutdownNow();
+        }
+    }
+
+    private void run(HttpClient client, int concurrency) {
+        URI uri = URI.create("http://localhost:" + port + "/transaction/use");
+        long[] latencies = new long[concurrency];
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[concurrency];
+
+        long start = System.nanoTime();
+        for (int i = 0; i < concurrency; i++) {
+            int index = i;
+            HttpRequest request = HttpRequest.newBuilder(uri)
+                    .timeout(Duration.ofSeconds(TIMEOUT_SECONDS))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(String.format(
+                            "{\"userId\":1,\"accountNumber\":\"%d\",\"amount\":100}",
+                            ACCOUNT_NUMBER_OFFSET + i)))
+                    .build();
+            long sentAt = System.nanoTime();
+            futures[i] = client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                    .handle((response, e) -> {
+                        latencies[index] = System.nanoTime() - sentAt;
+                        if (e != null) {
+                            // 타임아웃, 연결 거부
+                            errors.incrementAndGet();
+                        } else if (response.statusCode() == 200
+                                && response.body().contains("\"transactionResult\":\"S\"")) {
+                            succeeded.incrementAndGet();
+                        } else {
+                            failed.incrementAndGet();
+                        }
+                        return null;
+                    });
+        }
+        CompletableFuture.allOf(futures).join();
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        Arrays.sort(latencies);
+        System.out.printf("%s threads, %d in-flight : succeeded %d, failed %d, errors %d in %d ms,"
+                        + " %.0f req/s, p50 %d ms, p99 %d ms, max %d ms%n",
+                virtualThreads ? "virtual" : "platform", concurrency,
+                succeeded.get(), failed.get(), errors.get(), elapsed.toMillis(),
+                succeeded.get() * 1000.0 / Math.max(1, elapsed.toMillis()),
+                millis(latencies, 0.50), millis(latencies, 0.99),
+                Duration.ofNanos(latencies[concurrency - 1]).toMillis());
+    }
+
+    private static long millis(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return Duration.ofNanos(sorted[Math.max(0, index)]).toMillis();
+    }
+}
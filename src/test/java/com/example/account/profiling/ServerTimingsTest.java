@@ -0,0 +1,53 @@
+package com.example.account.profiling;
+
+import com.example.account.exception.AccountException;
+import com.example.account.type.AccountPhase;
+import com.example.account.type.ErrorCode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServerTimingsTest {
+    @AfterEach
+    void tearDown() {
+        ServerTimings.end();
+    }
+
+    @Test
+    void collectPhasesIntoHeaderValue() {
+        //given
+        ServerTimings.enable();
+        ServerTimings timings = ServerTimings.begin();
+
+        //when
+        AccountPhases.run(AccountPhase.USER_LOOKUP, "1000000012", () -> {
+        });
+        AccountPhases.run(AccountPhase.ACCOUNT_LOOKUP, "1000000012", () -> {
+        });
+        assertThrows(AccountException.class, () ->
+                AccountPhases.run(AccountPhase.VALIDATION, "1000000012", () -> {
+                    throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
+                }));
+        String header = timings.toHeaderValue();
+
+        //then
+        // 같은 이름(db-read)은 하나로 합산되고 total 이 마지막에 붙는다
+        assertTrue(header.matches("db-read;dur=\\d+\\.\\d{3}, validate;dur=\\d+\\.\\d{3}, total;dur=\\d+\\.\\d{3}"),
+                header);
+    }
+
+    @Test
+    void noTimingsOutsideSampledRequest() {
+        //given
+        ServerTimings.enable();
+
+        //when
+        AccountPhases.PhaseTimer timer = AccountPhases.start(AccountPhase.LOCK, "1000000012");
+        timer.success();
+
+        //then
+        assertNull(ServerTimings.current());
+        assertSame(AccountPhases.PhaseTimer.NOOP, timer);
+    }
+}
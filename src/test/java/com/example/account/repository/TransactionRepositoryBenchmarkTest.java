@@ -0,0 +1,96 @@
+package com.example.account.repository;
+
+import com.example.account.domain.Account;
+import com.example.account.domain.AccountUser;
+import com.example.account.domain.Transaction;
+import com.example.account.type.AccountStatus;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TransactionRepository.save 초당 insert 수 측정
+ * ./gradlew benchmark
+ * 변경 전 기준값: ./gradlew benchmark -Dspring.jpa.properties.account.id.increment-size=1
+ *                -Dspring.jpa.properties.hibernate.jdbc.batch_size=0
+ */
+@Tag("benchmark")
+@SpringBootTest
+class TransactionRepositoryBenchmarkTest {
+    private static final int WARMUP_ROWS =
+            Integer.getInteger("benchmark.warmup-rows", 5_000);
+    private static final int MEASURE_ROWS =
+            Integer.getInteger("benchmark.rows", 50_000);
+    private static final int FLUSH_EVERY = 50;
+
+    @Autowired
+    private AccountUserRepository accountUserRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void saveTransactions() {
+        AccountUser user = accountUserRepository.findById(1L).get();
+        Account account = accountRepository.save(Account.builder()
+                .accountUser(user)
+                .accountNumber("9000000000")
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(0L)
+                .registeredAt(LocalDateTime.now())
+                .build());
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        insert(transactionTemplate, account, "warmup", WARMUP_ROWS);
+
+        long start = System.nanoTime();
+        insert(transactionTemplate, account, "bench", MEASURE_ROWS);
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf("TransactionRepository.save : %d rows in %d ms, %.0f inserts/sec%n",
+                MEASURE_ROWS,
+                TimeUnit.NANOSECONDS.toMillis(elapsed),
+                MEASURE_ROWS * 1_000_000_000.0 / elapsed);
+    }
+
+    // transactionId 는 unique 라 예열과 측정에 다른 prefix 를 쓴다
+    private void insert(TransactionTemplate transactionTemplate, Account account, String idPrefix, int rows) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Account reference = entityManager.getReference(Account.class, account.getId());
+            for (int i = 0; i < rows; i++) {
+                transactionRepository.save(Transaction.builder()
+                        .transactionType(TransactionType.USE)
+                        .transactionResultType(TransactionResultType.S)
+                        .account(reference)
+                        .amount(100L)
+                        .balanceSnapshot(0L)
+                        .transactionId(idPrefix + i)
+                        .transactedAt(LocalDateTime.now())
+                        .build());
+                if ((i + 1) % FLUSH_EVERY == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                    reference = entityManager.getReference(Account.class, account.getId());
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.account.service;
+
+import com.example.account.domain.Account;
+import com.example.account.domain.AccountUser;
+import com.example.account.dto.AccountSummary;
+import com.example.account.repository.AccountRepository;
+import com.example.account.repository.AccountUserRepository;
+import com.example.account.type.AccountStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.listener.MessageListener;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class AccountCacheTest {
+    @Mock
+    private AccountUserRepository accountUserRepository;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RTopic topic;
+
+    @Mock
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    private AccountCache accountCache;
+
+    @BeforeEach
+    void setUp() {
+        accountCache = new AccountCache(accountUserRepository, accountRepository,
+                redissonClient, 100, Duration.ofMinutes(1), meterRegistry);
+    }
+
+    @Test
+    void loadUserOnce() {
+        //given
+        given(accountUserRepository.findById(12L))
+                .willReturn(Optional.of(AccountUser.builder().id(12L).name("pobi").build()));
+
+        //when
+        accountCache.getUser(12L);
+        Optional<AccountUser> user = accountCache.getUser(12L);
+
+        //then
+        verify(accountUserRepository, times(1)).findById(12L);
+        assertEquals("pobi", user.get().getName());
+    }
+
+    @Test
+    void doNotCacheMissingUser() {
+        //given
+        given(accountUserRepository.findById(12L)).willReturn(Optional.empty());
+
+        //when
+        accountCache.getUser(12L);
+        Optional<AccountUser> user = accountCache.getUser(12L);
+
+        //then
+        verify(accountUserRepository, times(2)).findById(12L);
+        assertFalse(user.isPresent());
+    }
+
+    @Test
+    void evictAccountAndBroadcast() {
+        //given
+        given(accountRepository.findByAccountNumber("1000000012"))
+                .willReturn(Optional.of(account(AccountStatus.IN_USE)),
+                        Optional.of(account(AccountStatus.UNREGISTERED)));
+        given(redissonClient.getTopic(AccountCache.ACCOUNT_TOPIC)).willReturn(topic);
+        assertEquals(AccountStatus.IN_USE,
+                accountCache.getAccount("1000000012").get().getAccountStatus());
+
+        //when
+        accountCache.evictAccount("1000000012");
+
+        //then
+        verify(topic, times(1)).publish("1000000012");
+        AccountSummary summary = accountCache.getAccount("1000000012").get();
+        assertEquals(AccountStatus.UNREGISTERED, summary.getAccountStatus());
+        assertEquals(12L, summary.getOwnerUserId());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void invalidateOnMessageFromOtherNode() {
+        //given
+        given(redissonClient.getTopic(anyString())).willReturn(topic);
+        given(accountRepository.findByAccountNumber("1000000012"))
+                .willReturn(Optional.of(account(AccountStatus.IN_USE)));
+        ArgumentCaptor<MessageListener<String>> captor =
+                ArgumentCaptor.forClass(MessageListener.class);
+        accountCache.subscribe();
+        verify(topic).addListener(eq(String.class), captor.capture());
+        accountCache.getAccount("1000000012");
+
+        //when
+        captor.getValue().onMessage(AccountCache.ACCOUNT_TOPIC, "1000000012");
+        accountCache.getAccount("1000000012");
+
+        //then
+        verify(accountRepository, times(2)).findByAccountNumber("1000000012");
+    }
+
+    private static Account account(AccountStatus accountStatus) {
+        return Account.builder()
+                .id(1L)
+                .accountUser(AccountUser.builder().id(12L).build())
+                .accountNumber("1000000012")
+                .accountStatus(accountStatus)
+                .build();
+    }
+}
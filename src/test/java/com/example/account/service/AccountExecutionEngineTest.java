@@ -0,0 +1,96 @@
+package com.example.account.service;
+
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountExecutionEngineTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AccountExecutionEngine accountExecutionEngine;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        accountExecutionEngine.shutdown();
+    }
+
+    @Test
+    void executeInSubmitOrderPerAccount() {
+        //given
+        accountExecutionEngine = new AccountExecutionEngine(4, 1000, meterRegistry);
+        List<Integer> executed = Collections.synchronizedList(new ArrayList<>());
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+
+        //when
+        for (int i = 0; i < 100; i++) {
+            int order = i;
+            futures.add(accountExecutionEngine.submit("1000000000", () -> {
+                executed.add(order);
+                return order;
+            }));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+
+        //then
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, executed.get(i));
+            assertEquals(i, futures.get(i).join());
+        }
+    }
+
+    @Test
+    void failWhenShardQueueIsFull() throws Exception {
+        //given
+        accountExecutionEngine = new AccountExecutionEngine(1, 1, meterRegistry);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Object> running = accountExecutionEngine.submit("1000000000", () -> {
+            started.countDown();
+            release.await();
+            return null;
+        });
+        started.await();
+        CompletableFuture<Object> queued = accountExecutionEngine.submit("1000000000", () -> null);
+
+        //when
+        CompletableFuture<Object> rejected = accountExecutionEngine.submit("1000000000", () -> null);
+
+        //then
+        ExecutionException exception = assertThrows(ExecutionException.class, rejected::get);
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK,
+                ((AccountException) exception.getCause()).getErrorCode());
+        assertEquals(1, accountExecutionEngine.getQueueDepths()[0]);
+        assertEquals(1.0, meterRegistry.get("account.single_writer.queue.depth")
+                .tag("shard", "0").gauge().value());
+
+        release.countDown();
+        running.get();
+        queued.get();
+    }
+
+    @Test
+    void propagateTaskFailure() {
+        //given
+        accountExecutionEngine = new AccountExecutionEngine(2, 10, meterRegistry);
+
+        //when
+        CompletableFuture<Object> future = accountExecutionEngine.submit("1000000000", () -> {
+            throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
+        });
+
+        //then
+        ExecutionException exception = assertThrows(ExecutionException.class, future::get);
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE,
+                ((AccountException) exception.getCause()).getErrorCode());
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.account.service;
+
+import com.example.account.type.LockType;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class AccountMetricsTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AccountMetrics accountMetrics = new AccountMetrics(meterRegistry);
+
+    @Test
+    void recordLockMetricsPerLockType() {
+        //given
+        //when
+        accountMetrics.recordLockWait(LockType.REDIS, TimeUnit.MILLISECONDS.toNanos(3));
+        accountMetrics.recordLockHold(LockType.REDIS, TimeUnit.MILLISECONDS.toNanos(7));
+        accountMetrics.recordLockFailure(LockType.LOCAL);
+        accountMetrics.recordLockFailure(LockType.LOCAL);
+
+        //then
+        assertEquals(3.0, meterRegistry.get("account.lock.wait").tag("lock", "REDIS")
+                .timer().totalTime(TimeUnit.MILLISECONDS));
+        assertEquals(7.0, meterRegistry.get("account.lock.hold").tag("lock", "REDIS")
+                .timer().totalTime(TimeUnit.MILLISECONDS));
+        assertEquals(2.0, meterRegistry.get("account.lock.failures").tag("lock", "LOCAL")
+                .counter().count());
+        assertEquals(0.0, meterRegistry.get("account.lock.failures").tag("lock", "REDIS")
+                .counter().count());
+        assertNull(meterRegistry.find("account.lock.wait").tag("lock", "DEFAULT").timer());
+    }
+
+    @Test
+    void countTransactionsByTypeAndResult() {
+        //given
+        //when
+        accountMetrics.recordTransaction(TransactionType.USE, TransactionResultType.S);
+        accountMetrics.recordTransaction(TransactionType.USE, TransactionResultType.S);
+        accountMetrics.recordTransaction(TransactionType.CANCEL, TransactionResultType.F);
+
+        //then
+        assertEquals(2.0, meterRegistry.get("account.transactions")
+                .tag("type", "USE").tag("result", "S").counter().count());
+        assertEquals(1.0, meterRegistry.get("account.transactions")
+                .tag("type", "CANCEL").tag("result", "F").counter().count());
+        assertEquals(0.0, meterRegistry.get("account.transactions")
+                .tag("type", "USE").tag("result", "F").counter().count());
+    }
+
+    @Test
+    void countTransactionOnlyAfterCommit() {
+        //given
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            //when
+            accountMetrics.recordTransactionAfterCommit(TransactionType.USE, TransactionResultType.S);
+            double beforeCommit = meterRegistry.get("account.transactions")
+                    .tag("type", "USE").tag("result", "S").counter().count();
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(TransactionSynchronization::afterCommit);
+
+            //then
+            assertEquals(0.0, beforeCommit);
+            assertEquals(1.0, meterRegistry.get("account.transactions")
+                    .tag("type", "USE").tag("result", "S").counter().count());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void doNotCountRolledBackTransaction() {
+        //given
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            //when
+            accountMetrics.recordTransactionAfterCommit(TransactionType.CANCEL, TransactionResultType.S);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(
+                            TransactionSynchronization.STATUS_ROLLED_BACK));
+
+            //then
+            assertEquals(0.0, meterRegistry.get("account.transactions")
+                    .tag("type", "CANCEL").tag("result", "S").counter().count());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
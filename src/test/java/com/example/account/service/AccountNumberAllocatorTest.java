@@ -0,0 +1,109 @@
+package com.example.account.service;
+
+import com.example.account.domain.Account;
+import com.example.account.exception.AccountException;
+import com.example.account.repository.AccountRepository;
+import com.example.account.type.ErrorCode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RAtomicLong;
+import org.redisson.api.RedissonClient;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class AccountNumberAllocatorTest {
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RAtomicLong counter;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Test
+    void allocateFromReservedBlock() {
+        //given
+        AccountNumberAllocator allocator =
+                new AccountNumberAllocator(redissonClient, accountRepository, 3);
+        given(redissonClient.getAtomicLong(anyString())).willReturn(counter);
+        given(counter.isExists()).willReturn(true);
+        given(counter.addAndGet(3L)).willReturn(1000000002L, 1000000005L);
+
+        //when
+        //then
+        assertEquals("1000000000", allocator.next());
+        assertEquals("1000000001", allocator.next());
+        assertEquals("1000000002", allocator.next());
+        assertEquals("1000000003", allocator.next());
+        verify(counter, times(2)).addAndGet(3L);
+        verify(accountRepository, never()).findFirstByOrderByAccountNumberDesc();
+    }
+
+    @Test
+    void seedCounterFromDatabase() {
+        //given
+        AccountNumberAllocator allocator =
+                new AccountNumberAllocator(redissonClient, accountRepository, 10);
+        given(redissonClient.getAtomicLong(anyString())).willReturn(counter);
+        given(counter.isExists()).willReturn(false);
+        given(accountRepository.findFirstByOrderByAccountNumberDesc())
+                .willReturn(Optional.of(Account.builder()
+                        .accountNumber("1000000011").build()));
+        given(counter.addAndGet(10L)).willReturn(1000000021L);
+
+        //when
+        String accountNumber = allocator.next();
+
+        //then
+        verify(counter, times(1)).compareAndSet(0L, 1000000011L);
+        assertEquals("1000000012", accountNumber);
+    }
+
+    @Test
+    void seedFirstAccountNumber() {
+        //given
+        AccountNumberAllocator allocator =
+                new AccountNumberAllocator(redissonClient, accountRepository, 10);
+        given(redissonClient.getAtomicLong(anyString())).willReturn(counter);
+        given(counter.isExists()).willReturn(false);
+        given(accountRepository.findFirstByOrderByAccountNumberDesc())
+                .willReturn(Optional.empty());
+        given(counter.addAndGet(10L)).willReturn(1000000009L);
+
+        //when
+        String accountNumber = allocator.next();
+
+        //then
+        verify(counter, times(1)).compareAndSet(0L, 999999999L);
+        assertEquals("1000000000", accountNumber);
+    }
+
+    @Test
+    void failWhenAccountNumbersExhausted() {
+        //given
+        AccountNumberAllocator allocator =
+                new AccountNumberAllocator(redissonClient, accountRepository, 10);
+        given(redissonClient.getAtomicLong(anyString())).willReturn(counter);
+        given(counter.isExists()).willReturn(true);
+        given(counter.addAndGet(anyLong())).willReturn(10000000009L);
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                allocator::next);
+
+        //then
+        assertEquals(ErrorCode.ACCOUNT_NUMBER_EXHAUSTED, exception.getErrorCode());
+    }
+}
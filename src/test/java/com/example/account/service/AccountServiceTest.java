@@ -3,6 +3,7 @@ package com.example.account.service;
 import com.example.account.domain.Account;
 import com.example.account.domain.AccountUser;
 import com.example.account.dto.AccountDto;
+import com.example.account.dto.AccountInfo;
 import com.example.account.exception.AccountException;
 import com.example.account.repository.AccountUserRepository;
 import com.example.account.repository.AccountRepository;
@@ -15,6 +16,8 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.util.Arrays;
 import java.util.List;
@@ -34,6 +37,15 @@ class AccountServiceTest {
     @Mock
     private AccountUserRepository accountUserRepository;
 
+    @Mock
+    private AccountNumberAllocator accountNumberAllocator;
+
+    @Mock
+    private AccountCache accountCache;
+
+    @Mock
+    private ObjectProvider<BalanceLedger> balanceLedger;
+
     @InjectMocks
     private AccountService accountService;
 
@@ -47,10 +59,9 @@ class AccountServiceTest {
 
         given(accountUserRepository.findById(anyLong()))
                 .willReturn(Optional.of(accountUser));
-        given(accountRepository.findFirstByOrderByIdDesc())
-                .willReturn(Optional.of(Account.builder()
-                        .accountNumber("1000000011").build()));
-        given(accountRepository.save(any()))
+        given(accountNumberAllocator.next())
+                .willReturn("1000000012");
+        given(accountRepository.saveAndFlush(any()))
                 .willReturn(Account.builder()
                         .id(12L)
                         .accountUser(accountUser)
@@ -62,10 +73,11 @@ class AccountServiceTest {
         AccountDto accountDto = accountService.createAccount(1L, 100L);
 
         //then
-        verify(accountRepository, times(1)).save(captor.capture());
+        verify(accountRepository, times(1)).saveAndFlush(captor.capture());
 
         assertEquals(12, accountDto.getUserId());
         assertEquals("1000000012", captor.getValue().getAccountNumber());
+        assertEquals(100L, captor.getValue().getOpeningBalance());
     }
 
     @Test
@@ -78,9 +90,9 @@ class AccountServiceTest {
 
         given(accountUserRepository.findById(anyLong()))
                 .willReturn(Optional.of(accountUser));
-        given(accountRepository.findFirstByOrderByIdDesc())
-                .willReturn(Optional.empty());
-        given(accountRepository.save(any()))
+        given(accountNumberAllocator.next())
+                .willReturn("1000000000");
+        given(accountRepository.saveAndFlush(any()))
                 .willReturn(Account.builder()
                         .id(15L)
                         .accountUser(accountUser)
@@ -92,12 +104,66 @@ class AccountServiceTest {
         AccountDto accountDto = accountService.createAccount(1L, 100L);
 
         //then
-        verify(accountRepository, times(1)).save(captor.capture());
+        verify(accountRepository, times(1)).saveAndFlush(captor.capture());
 
         assertEquals(15L, accountDto.getUserId());
         assertEquals("1000000000", captor.getValue().getAccountNumber());
     }
 
+    @Test
+    @DisplayName("이미 사용 중인 계좌번호는 건너뛰고 다음 번호로 생성")
+    void createAccount_skipUsedAccountNumber() {
+        //given
+        AccountUser accountUser = AccountUser.builder()
+                .id(12L)
+                .name("pobi")
+                .build();
+
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(accountUser));
+        given(accountNumberAllocator.next())
+                .willReturn("1000000012", "1000000013");
+        given(accountRepository.saveAndFlush(any()))
+                .willThrow(new DataIntegrityViolationException("account_number"))
+                .willReturn(Account.builder()
+                        .id(12L)
+                        .accountUser(accountUser)
+                        .accountNumber("1000000013").build());
+
+        ArgumentCaptor<Account> captor = ArgumentCaptor.forClass(Account.class);
+
+        //when
+        accountService.createAccount(1L, 100L);
+
+        //then
+        verify(accountRepository, times(2)).saveAndFlush(captor.capture());
+        assertEquals("1000000012", captor.getAllValues().get(0).getAccountNumber());
+        assertEquals("1000000013", captor.getAllValues().get(1).getAccountNumber());
+    }
+
+    @Test
+    @DisplayName("계좌번호가 계속 중복이면 정해진 횟수만 시도하고 실패")
+    void createAccount_accountNumberExhausted() {
+        //given
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(AccountUser.builder()
+                        .id(12L)
+                        .name("pobi")
+                        .build()));
+        given(accountNumberAllocator.next())
+                .willReturn("1000000012");
+        given(accountRepository.saveAndFlush(any()))
+                .willThrow(new DataIntegrityViolationException("account_number"));
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> accountService.createAccount(1L, 100L));
+
+        //then
+        verify(accountRepository, times(5)).saveAndFlush(any());
+        assertEquals(ErrorCode.ACCOUNT_NUMBER_EXHAUSTED, exception.getErrorCode());
+    }
+
     @Test
     @DisplayName("해당 유저 없음 - 계좌 생성 실패")
     void createAccount_UserNotFound() {
@@ -161,6 +227,7 @@ class AccountServiceTest {
         assertEquals(12L, accountDto.getUserId());
         assertEquals("1000000012", captor.getValue().getAccountNumber());
         assertEquals(AccountStatus.UNREGISTERED, captor.getValue().getAccountStatus());
+        verify(accountCache, times(1)).evictAccount("1000000012");
     }
 
     @Test
@@ -286,56 +353,41 @@ class AccountServiceTest {
     @Test
     void successGetAccountsByUserId() {
         //given
-        AccountUser pobi = AccountUser.builder()
-                .id(12L)
-                .name("pobi").build();
-
-        List<Account> accounts = Arrays.asList(
-                Account.builder()
-                        .accountUser(pobi)
-                        .accountNumber("1234567890")
-                        .balance(1000L)
-                        .build(),
-                Account.builder()
-                        .accountNumber("9876543210")
-                        .accountUser(pobi)
-                        .balance(2000L)
-                        .build(),
-                Account.builder()
-                        .accountNumber("4567891230")
-                        .accountUser(pobi)
-                        .balance(3000L)
-                        .build()
-        );
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.of(pobi));
-        given(accountRepository.findByAccountUser(any()))
-                .willReturn(accounts);
+        given(accountCache.getUser(anyLong()))
+                .willReturn(Optional.of(AccountUser.builder()
+                        .id(12L)
+                        .name("pobi").build()));
+        given(accountRepository.findAccountInfosByUserId(anyLong()))
+                .willReturn(Arrays.asList(
+                        new AccountInfo("1234567890", 1000L),
+                        new AccountInfo("9876543210", 2000L),
+                        new AccountInfo("4567891230", 3000L)));
 
         //when
-        List<AccountDto> accountsDtos = accountService.getAccountsByUserId(1L);
+        List<AccountInfo> accountInfos = accountService.getAccountInfosByUserId(12L);
 
         //then
-        assertEquals(3, accountsDtos.size());
-        assertEquals("1234567890", accountsDtos.get(0).getAccountNumber());
-        assertEquals(1000, accountsDtos.get(0).getBalance());
-        assertEquals("9876543210", accountsDtos.get(1).getAccountNumber());
-        assertEquals(2000, accountsDtos.get(1).getBalance());
-        assertEquals("4567891230", accountsDtos.get(2).getAccountNumber());
-        assertEquals(3000, accountsDtos.get(2).getBalance());
+        verify(accountRepository, times(1)).findAccountInfosByUserId(12L);
+        assertEquals(3, accountInfos.size());
+        assertEquals("1234567890", accountInfos.get(0).getAccountNumber());
+        assertEquals(1000, accountInfos.get(0).getBalance());
+        assertEquals("9876543210", accountInfos.get(1).getAccountNumber());
+        assertEquals(2000, accountInfos.get(1).getBalance());
+        assertEquals("4567891230", accountInfos.get(2).getAccountNumber());
+        assertEquals(3000, accountInfos.get(2).getBalance());
     }
 
     @Test
     void failedToGetAccounts() {
         //given
-        given(accountUserRepository.findById(anyLong()))
+        given(accountCache.getUser(anyLong()))
                 .willReturn(Optional.empty());
 
         //when
         AccountException exception = assertThrows(AccountException.class,
-                () -> accountService.getAccountsByUserId(1L));
+                () -> accountService.getAccountInfosByUserId(1L));
 
         //then
         assertEquals(ErrorCode.USER_NOT_FOUND, exception.getErrorCode());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,179 @@
+package com.example.account.service;
+
+import com.example.account.dto.TransactionDto;
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import com.example.account.type.LockType;
+import com.example.account.type.TransactionResultType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncTransactionServiceTest {
+    @Mock
+    private TransactionService transactionService;
+
+    @Mock
+    private FailedTransactionRecorder failedTransactionRecorder;
+
+    @Mock
+    private LockStrategyRegistry lockStrategyRegistry;
+
+    @Mock
+    private LockService lockService;
+
+    @Mock
+    private ObjectProvider<BalanceLedger> balanceLedgerProvider;
+
+    @Mock
+    private BalanceLedger balanceLedger;
+
+    private AsyncTransactionService asyncTransactionService;
+
+    @BeforeEach
+    void setUp() {
+        asyncTransactionService = new AsyncTransactionService(transactionService,
+                failedTransactionRecorder, lockStrategyRegistry, lockService, balanceLedgerProvider,
+                new AccountMetrics(new SimpleMeterRegistry()), 1, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        asyncTransactionService.shutdown();
+    }
+
+    @Test
+    void useBalanceWithAsyncRedisLock() throws Exception {
+        //given
+        given(lockStrategyRegistry.resolve(LockType.DEFAULT)).willReturn(lockService);
+        given(lockService.getType()).willReturn(LockType.REDIS);
+        given(lockService.lockAsync(anyString(), anyLong()))
+                .willReturn(CompletableFuture.completedFuture(-1L));
+        given(transactionService.useBalance(1L, "1000000000", 1000L))
+                .willReturn(TransactionDto.builder()
+                        .transactionResultType(TransactionResultType.S)
+                        .amount(1000L)
+                        .build());
+
+        //when
+        TransactionDto transactionDto = asyncTransactionService
+                .useBalance(1L, "1000000000", 1000L)
+                .get(1, TimeUnit.SECONDS);
+
+        //then
+        assertEquals(1000L, transactionDto.getAmount());
+        verify(lockService, timeout(1000)).unlockAsync("1000000000", -1L);
+    }
+
+    @Test
+    void recordFailureAndUnlock() {
+        //given
+        given(lockStrategyRegistry.resolve(LockType.DEFAULT)).willReturn(lockService);
+        given(lockService.getType()).willReturn(LockType.REDIS);
+        given(lockService.lockAsync(anyString(), anyLong()))
+                .willReturn(CompletableFuture.completedFuture(-2L));
+        given(transactionService.useBalance(anyLong(), anyString(), anyLong()))
+                .willThrow(new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE));
+
+        //when
+        ExecutionException exception = assertThrows(ExecutionException.class,
+                () -> asyncTransactionService.useBalance(1L, "1000000000", 1000L)
+                        .get(1, TimeUnit.SECONDS));
+
+        //then
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE,
+                ((AccountException) exception.getCause()).getErrorCode());
+        verify(failedTransactionRecorder).recordUse("1000000000", 1000L);
+        verify(lockService, timeout(1000)).unlockAsync("1000000000", -2L);
+    }
+
+    @Test
+    void failWithoutWorkWhenLockNotAcquired() {
+        //given
+        given(lockStrategyRegistry.resolve(LockType.DEFAULT)).willReturn(lockService);
+        given(lockService.getType()).willReturn(LockType.REDIS);
+        given(lockService.lockAsync(anyString(), anyLong()))
+                .willReturn(CompletableFuture.failedFuture(
+                        new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK)));
+
+        //when
+        ExecutionException exception = assertThrows(ExecutionException.class,
+                () -> asyncTransactionService.cancelBalance("transactionId", "1000000000", 1000L)
+                        .get(1, TimeUnit.SECONDS));
+
+        //then
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK,
+                ((AccountException) exception.getCause()).getErrorCode());
+        verify(transactionService, never()).cancelBalance(anyString(), anyString(), anyLong());
+        verify(failedTransactionRecorder, never()).recordCancel(anyString(), anyLong());
+        verify(lockService, never()).unlockAsync(anyString(), anyLong());
+    }
+
+    @Test
+    void rejectWhenExecutorIsFull() throws Exception {
+        //given
+        // 스레드 1개, 대기열 1개를 모두 채운다
+        CountDownLatch release = new CountDownLatch(1);
+        given(balanceLedgerProvider.getIfAvailable()).willReturn(balanceLedger);
+        given(balanceLedger.manages(anyString())).willReturn(true);
+        given(balanceLedger.useBalance(anyLong(), anyString(), anyLong()))
+                .willAnswer(invocation -> {
+                    release.await();
+                    return TransactionDto.builder().build();
+                });
+        CompletableFuture<TransactionDto> running = asyncTransactionService.useBalance(1L, "1000000000", 1000L);
+        CompletableFuture<TransactionDto> queued = asyncTransactionService.useBalance(1L, "1000000000", 1000L);
+
+        //when
+        CompletableFuture<TransactionDto> rejected = asyncTransactionService.useBalance(1L, "1000000000", 1000L);
+
+        //then
+        ExecutionException exception = assertThrows(ExecutionException.class,
+                () -> rejected.get(1, TimeUnit.SECONDS));
+        assertEquals(ErrorCode.ASYNC_EXECUTOR_BUSY,
+                ((AccountException) exception.getCause()).getErrorCode());
+        release.countDown();
+        assertNotNull(running.get(1, TimeUnit.SECONDS));
+        assertNotNull(queued.get(1, TimeUnit.SECONDS));
+        verify(lockStrategyRegistry, never()).resolve(any());
+    }
+
+    @Test
+    void runOtherLockStrategyOnExecutor() throws Exception {
+        //given
+        LockStrategy localLockStrategy = new LocalLockStrategy();
+        given(lockStrategyRegistry.resolve(LockType.DEFAULT)).willReturn(localLockStrategy);
+        given(transactionService.useBalance(anyLong(), anyString(), anyLong()))
+                .willReturn(TransactionDto.builder().amount(1000L).build());
+
+        //when
+        TransactionDto transactionDto = asyncTransactionService
+                .useBalance(1L, "1000000000", 1000L)
+                .get(1, TimeUnit.SECONDS);
+
+        //then
+        assertEquals(1000L, transactionDto.getAmount());
+        verify(lockService, never()).lockAsync(anyString(), anyLong());
+        verify(lockService, never()).unlockAsync(anyString(), anyLong());
+    }
+}
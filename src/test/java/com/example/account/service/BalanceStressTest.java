@@ -0,0 +1,226 @@
+package com.example.account.service;
+
+import com.example.account.aop.AccountLock;
+import com.example.account.aop.AccountLockIdInterface;
+import com.example.account.dto.TransactionDto;
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import com.example.account.type.LockType;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 락 전략별 동시 사용/취소 스트레스 (./gradlew stressTest)
+ * 실제 LockAopAspect -> LockStrategy -> TransactionService 를 H2 와 embedded redis 위에서 여러 스레드로 호출하고,
+ * 계좌마다 "성공한 사용 - 성공한 취소 + 최종 잔액 = 시작 잔액" 과 음수 잔액 스냅샷이 없음을 확인한다.
+ * 시작 잔액은 사용 요청을 다 받아줄 수 없을 만큼 작게 잡아서 잔액 부족 경계도 같이 검증한다.
+ * 작업 수/스레드 수는 -Dstress.operations=, -Dstress.threads= 로 바꾼다.
+ * (NONE 은 conditional-update 설정에서만 안전하므로 여기서 다루지 않는다)
+ */
+@Tag("stress")
+@SpringBootTest(properties = {
+        "spring.redis.port=6382",
+        "spring.datasource.url=jdbc:h2:mem:stress",
+        "spring.jpa.properties.hibernate.show_sql=false",
+        "spring.jpa.properties.hibernate.format_sql=false",
+        "logging.level.com.example.account=WARN"
+})
+@Import(BalanceStressTest.LockedTransactions.class)
+class BalanceStressTest {
+    private static final int OPERATIONS = Integer.getInteger("stress.operations", 4000);
+    private static final int THREADS = Integer.getInteger("stress.threads", 32);
+    private static final int ACCOUNTS = 4;
+    private static final long OPENING_BALANCE = 50_000L;
+    private static final long AMOUNT = 100L;
+    private static final long ID_OFFSET = 400_000_000L;
+    private static final long ACCOUNT_NUMBER_OFFSET = 9_000_000_000L;
+
+    @Autowired
+    private LockedTransactions lockedTransactions;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @ParameterizedTest
+    @EnumSource(value = LockType.class, names = {"REDIS", "LOCAL", "PESSIMISTIC", "OPTIMISTIC", "SINGLE_WRITER"})
+    void balanceInvariantHoldsUnderConcurrentUseAndCancel(LockType lockType) throws Exception {
+        //given
+        long firstAccount = lockType.ordinal() * 100L;
+        jdbcTemplate.update("insert into account"
+                        + " (id, account_user_id, account_number, account_status, balance, opening_balance, version,"
+                        + " registered_at, created_at, updated_at)"
+                        + " select x + ?, 1, cast(? + x as varchar), 'IN_USE', ?, ?, 0, ?, now(), now()"
+                        + " from system_range(?, ?)",
+                ID_OFFSET, ACCOUNT_NUMBER_OFFSET, OPENING_BALANCE, OPENING_BALANCE, LocalDateTime.now(),
+                firstAccount, firstAccount + ACCOUNTS - 1);
+
+        List<Queue<String>> cancellable = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            cancellable.add(new ConcurrentLinkedQueue<>());
+        }
+        AtomicInteger remaining = new AtomicInteger(OPERATIONS);
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger lockRejected = new AtomicInteger();
+        AtomicInteger declined = new AtomicInteger();
+
+        //when
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        long start = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            Random random = new Random(t);
+            futures.add(executor.submit(() -> {
+                while (remaining.getAndDecrement() > 0) {
+                    int index = random.nextInt(ACCOUNTS);
+                    String accountNumber = accountNumber(firstAccount + index);
+                    // 취소할 거래가 있으면 30% 는 취소
+                    String transactionId = random.nextInt(10) < 3 ? cancellable.get(index).poll() : null;
+                    try {
+                        if (transactionId == null) {
+                            TransactionDto used = execute(lockType, new LockedCall(accountNumber,
+                                    () -> transactionService.useBalance(1L, accountNumber, AMOUNT)));
+                            cancellable.get(index).add(used.getTransactionId());
+                        } else {
+                            execute(lockType, new LockedCall(accountNumber,
+                                    () -> transactionService.cancelBalance(transactionId, accountNumber, AMOUNT)));
+                        }
+                        succeeded.incrementAndGet();
+                    } catch (AccountException e) {
+                        if (e.getErrorCode() == ErrorCode.ACCOUNT_TRANSACTION_LOCK) {
+                            lockRejected.incrementAndGet();
+                        } else {
+                            declined.incrementAndGet();
+                        }
+                        if (transactionId != null) {
+                            // 취소하지 못한 거래는 다시 취소 대상으로 둔다
+                            cancellable.get(index).add(transactionId);
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        executor.shutdown();
+
+        //then
+        for (int i = 0; i < ACCOUNTS; i++) {
+            String accountNumber = accountNumber(firstAccount + i);
+            Long balance = jdbcTemplate.queryForObject(
+                    "select balance from account where account_number = ?", Long.class, accountNumber);
+            Long used = jdbcTemplate.queryForObject(
+                    "select coalesce(sum(case when t.transaction_type = 'USE' then t.amount else -t.amount end), 0)"
+                            + " from transaction t join account a on a.id = t.account_id"
+                            + " where a.account_number = ? and t.transaction_result_type = 'S'",
+                    Long.class, accountNumber);
+            Long minSnapshot = jdbcTemplate.queryForObject(
+                    "select coalesce(min(t.balance_snapshot), 0)"
+                            + " from transaction t join account a on a.id = t.account_id"
+                            + " where a.account_number = ?",
+                    Long.class, accountNumber);
+
+            assertEquals(OPENING_BALANCE, used + balance, lockType + " " + accountNumber);
+            assertTrue(balance >= 0, lockType + " " + accountNumber + " balance : " + balance);
+            assertTrue(minSnapshot >= 0, lockType + " " + accountNumber + " snapshot : " + minSnapshot);
+        }
+        Integer recorded = jdbcTemplate.queryForObject(
+                "select count(*) from transaction t join account a on a.id = t.account_id"
+                        + " where a.id between ? and ? and t.transaction_result_type = 'S'",
+                Integer.class, ID_OFFSET + firstAccount, ID_OFFSET + firstAccount + ACCOUNTS - 1);
+        assertEquals(succeeded.get(), recorded, lockType.name());
+
+        System.out.printf("%-13s : %d ops in %d ms, %.0f ops/sec"
+                        + " (succeeded %d, lock rejected %d, declined %d, threads %d, accounts %d)%n",
+                lockType, OPERATIONS, elapsed.toMillis(),
+                OPERATIONS * 1000.0 / Math.max(1, elapsed.toMillis()),
+                succeeded.get(), lockRejected.get(), declined.get(), THREADS, ACCOUNTS);
+    }
+
+    private TransactionDto execute(LockType lockType, LockedCall call) {
+        switch (lockType) {
+            case REDIS:
+                return lockedTransactions.redis(call);
+            case LOCAL:
+                return lockedTransactions.local(call);
+            case PESSIMISTIC:
+                return lockedTransactions.pessimistic(call);
+            case OPTIMISTIC:
+                return lockedTransactions.optimistic(call);
+            case SINGLE_WRITER:
+                return lockedTransactions.singleWriter(call);
+            default:
+                throw new IllegalArgumentException(lockType.name());
+        }
+    }
+
+    private static String accountNumber(long account) {
+        return String.valueOf(ACCOUNT_NUMBER_OFFSET + account);
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    static class LockedCall implements AccountLockIdInterface {
+        private final String accountNumber;
+        private final Supplier<TransactionDto> action;
+    }
+
+    /**
+     * 컨트롤러(동기 사용 API 는 5초 대기)를 거치지 않고 LockAopAspect 를 태우기 위한 빈
+     * 락 종류는 어노테이션 값이라 전략마다 메서드를 둔다. (프록시를 거쳐야 하므로 테스트에서 직접 호출)
+     */
+    static class LockedTransactions {
+        @AccountLock(type = LockType.REDIS)
+        public TransactionDto redis(LockedCall call) {
+            return call.getAction().get();
+        }
+
+        @AccountLock(type = LockType.LOCAL)
+        public TransactionDto local(LockedCall call) {
+            return call.getAction().get();
+        }
+
+        @AccountLock(type = LockType.PESSIMISTIC)
+        public TransactionDto pessimistic(LockedCall call) {
+            return call.getAction().get();
+        }
+
+        @AccountLock(type = LockType.OPTIMISTIC)
+        public TransactionDto optimistic(LockedCall call) {
+            return call.getAction().get();
+        }
+
+        @AccountLock(type = LockType.SINGLE_WRITER)
+        public TransactionDto singleWriter(LockedCall call) {
+            return call.getAction().get();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.account.service;
+
+import com.example.account.dto.FailedTransaction;
+import com.example.account.type.TransactionType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class FailedTransactionRecorderTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Mock
+    private TransactionService transactionService;
+
+    @Test
+    void recordAsyncAndFlushInBatches() {
+        //given
+        FailedTransactionRecorder recorder =
+                new FailedTransactionRecorder(transactionService, meterRegistry, true, 100, 100, 2);
+        List<List<FailedTransaction>> flushed = new ArrayList<>();
+        willAnswer(invocation -> flushed.add(new ArrayList<>(invocation.getArgument(0))))
+                .given(transactionService).saveFailedTransactions(anyList());
+
+        //when
+        recorder.recordUse("1000000000", 1000L);
+        recorder.recordCancel("1000000001", 2000L);
+        recorder.recordUse("1000000002", 3000L);
+
+        //then
+        verify(transactionService, never()).saveFailedUseTransaction(anyString(), anyLong());
+        assertEquals(3, recorder.getQueueDepth());
+
+        recorder.flush();
+
+        assertEquals(0, recorder.getQueueDepth());
+        assertEquals(3, recorder.getFlushedCount());
+        assertEquals(2, flushed.size());
+        assertEquals(2, flushed.get(0).size());
+        assertEquals(TransactionType.CANCEL, flushed.get(0).get(1).getTransactionType());
+        assertEquals("1000000002", flushed.get(1).get(0).getAccountNumber());
+    }
+
+    @Test
+    void dropWhenQueueIsFull() {
+        //given
+        FailedTransactionRecorder recorder =
+                new FailedTransactionRecorder(transactionService, meterRegistry, true, 1, 100, 10);
+
+        //when
+        recorder.recordUse("1000000000", 1000L);
+        recorder.recordUse("1000000000", 2000L);
+
+        //then
+        assertEquals(1, recorder.getQueueDepth());
+        assertEquals(1, recorder.getDroppedCount());
+        assertEquals(1.0, meterRegistry.get("account.failed_transactions.dropped").counter().count());
+        assertEquals(1.0, meterRegistry.get("account.failed_transactions.queue.depth").gauge().value());
+    }
+
+    @Test
+    void flushOnShutdown() throws InterruptedException {
+        //given
+        FailedTransactionRecorder recorder =
+                new FailedTransactionRecorder(transactionService, meterRegistry, true, 100, 100, 10);
+        ArgumentCaptor<List<FailedTransaction>> captor = ArgumentCaptor.forClass(List.class);
+        recorder.recordUse("1000000000", 1000L);
+
+        //when
+        recorder.shutdown();
+
+        //then
+        verify(transactionService, times(1)).saveFailedTransactions(captor.capture());
+        assertEquals(1000L, captor.getValue().get(0).getAmount());
+    }
+
+    @Test
+    void recordSynchronouslyWhenAsyncDisabled() {
+        //given
+        FailedTransactionRecorder recorder =
+                new FailedTransactionRecorder(transactionService, meterRegistry, false, 100, 100, 10);
+
+        //when
+        recorder.recordUse("1000000000", 1000L);
+
+        //then
+        verify(transactionService, times(1)).saveFailedUseTransaction("1000000000", 1000L);
+        assertEquals(0, recorder.getQueueDepth());
+    }
+}
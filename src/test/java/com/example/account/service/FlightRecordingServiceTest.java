@@ -0,0 +1,89 @@
+package com.example.account.service;
+
+import com.example.account.dto.RecordingStatus;
+import com.example.account.exception.AccountException;
+import com.example.account.profiling.AccountPhases;
+import com.example.account.type.AccountPhase;
+import com.example.account.type.ErrorCode;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightRecordingServiceTest {
+    private final FlightRecordingService flightRecordingService = new FlightRecordingService(
+            "default", Duration.ofMinutes(1), DataSize.ofMegabytes(10), false);
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void tearDown() {
+        flightRecordingService.close();
+    }
+
+    @Test
+    void recordPhaseEventsAndDump() throws Exception {
+        //given
+        flightRecordingService.start();
+
+        //when
+        AccountPhases.run(AccountPhase.VALIDATION, "1000000012", () -> {
+        });
+        assertThrows(AccountException.class, () ->
+                AccountPhases.run(AccountPhase.ACCOUNT_LOOKUP, "1000000012", () -> {
+                    throw new AccountException(ErrorCode.ACCOUNT_NOT_FOUND);
+                }));
+        RecordingStatus stopped = flightRecordingService.stop();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        flightRecordingService.dump(out);
+
+        //then
+        assertEquals("STOPPED", stopped.getState());
+        Path file = Files.write(tempDir.resolve("account.jfr"), out.toByteArray());
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals("com.example.account.Phase"))
+                .collect(Collectors.toList());
+        assertEquals(2, events.size());
+        assertEquals("VALIDATION", events.get(0).getString("phase"));
+        assertEquals("SUCCESS", events.get(0).getString("outcome"));
+        assertEquals("1000000012".hashCode(), events.get(0).getInt("accountHash"));
+        assertEquals("ACCOUNT_LOOKUP", events.get(1).getString("phase"));
+        assertEquals("ACCOUNT_NOT_FOUND", events.get(1).getString("outcome"));
+    }
+
+    @Test
+    void startFailed_AlreadyRunning() {
+        //given
+        flightRecordingService.start();
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                flightRecordingService::start);
+
+        //then
+        assertEquals(ErrorCode.RECORDING_ALREADY_RUNNING, exception.getErrorCode());
+    }
+
+    @Test
+    void stopFailed_NotStarted() {
+        //given
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                flightRecordingService::stop);
+
+        //then
+        assertEquals(ErrorCode.RECORDING_NOT_FOUND, exception.getErrorCode());
+    }
+}
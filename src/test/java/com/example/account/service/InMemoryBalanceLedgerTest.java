@@ -0,0 +1,251 @@
+package com.example.account.service;
+
+import com.example.account.domain.Account;
+import com.example.account.domain.AccountUser;
+import com.example.account.domain.Transaction;
+import com.example.account.dto.JournalRecord;
+import com.example.account.dto.TransactionDto;
+import com.example.account.exception.AccountException;
+import com.example.account.repository.AccountRepository;
+import com.example.account.repository.TransactionRepository;
+import com.example.account.type.AccountStatus;
+import com.example.account.type.ErrorCode;
+import com.example.account.type.JournalRecordState;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryBalanceLedgerTest {
+    private static final String ACCOUNT_NUMBER = "1000000012";
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private TransactionService transactionService;
+
+    @Mock
+    private TransactionJournal transactionJournal;
+
+    @Mock
+    private TransactionCache transactionCache;
+
+    @Mock
+    private AccountCache accountCache;
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RLock ownership;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private Account account;
+    private InMemoryBalanceLedger ledger;
+
+    @BeforeEach
+    void setUp() {
+        AccountUser accountUser = AccountUser.builder()
+                .id(12L)
+                .name("pobi")
+                .build();
+        account = Account.builder()
+                .id(1L)
+                .accountUser(accountUser)
+                .accountNumber(ACCOUNT_NUMBER)
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(10000L)
+                .build();
+
+        ledger = new InMemoryBalanceLedger(accountRepository, transactionRepository,
+                transactionService, new UuidTransactionIdGenerator(), transactionJournal,
+                transactionCache, accountCache, new AccountMetrics(meterRegistry),
+                redissonClient, transactionManager,
+                new String[]{ACCOUNT_NUMBER, " "}, 1000);
+    }
+
+    @Test
+    void useBalanceInMemoryAfterJournaling() {
+        //given
+        load();
+        given(accountCache.getUser(12L))
+                .willReturn(Optional.of(account.getAccountUser()));
+
+        //when
+        TransactionDto first = ledger.useBalance(12L, ACCOUNT_NUMBER, 200L);
+        TransactionDto second = ledger.useBalance(12L, ACCOUNT_NUMBER, 300L);
+
+        //then
+        verify(transactionJournal, times(2)).appendRecord(any());
+        assertEquals(9800L, first.getBalanceSnapshot());
+        assertEquals(9500L, second.getBalanceSnapshot());
+        assertEquals(TransactionResultType.S, second.getTransactionResultType());
+        assertEquals(2, ledger.getPendingCount());
+        assertTrue(ledger.manages(ACCOUNT_NUMBER));
+        assertFalse(ledger.manages("1000000000"));
+    }
+
+    @Test
+    void recordFailureWhenAmountExceedBalance() {
+        //given
+        load();
+        given(accountCache.getUser(12L))
+                .willReturn(Optional.of(account.getAccountUser()));
+        ArgumentCaptor<JournalRecord> captor = ArgumentCaptor.forClass(JournalRecord.class);
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> ledger.useBalance(12L, ACCOUNT_NUMBER, 20000L));
+
+        //then
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
+        verify(transactionJournal).appendRecord(captor.capture());
+        assertEquals(TransactionResultType.F, captor.getValue().getTransactionResultType());
+        assertEquals(10000L, captor.getValue().getBalanceSnapshot());
+        assertEquals(1, ledger.getPendingCount());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flushTransactionsAndLatestBalance() {
+        //given
+        load();
+        given(accountCache.getUser(12L))
+                .willReturn(Optional.of(account.getAccountUser()));
+        given(accountRepository.getById(1L)).willReturn(account);
+        ledger.useBalance(12L, ACCOUNT_NUMBER, 200L);
+        ledger.useBalance(12L, ACCOUNT_NUMBER, 300L);
+        ArgumentCaptor<List<Transaction>> captor = ArgumentCaptor.forClass(List.class);
+        double beforeFlush = usedCount();
+
+        //when
+        ledger.flush();
+
+        //then
+        verify(transactionRepository).saveAll(captor.capture());
+        verify(accountRepository).updateBalance(eq(1L), eq(9500L), any());
+        assertEquals(2, captor.getValue().size());
+        assertEquals(0, ledger.getPendingCount());
+        assertEquals(2L, ledger.getFlushedCount());
+        // DB 에 반영된 뒤에 센다
+        assertEquals(0.0, beforeFlush);
+        assertEquals(2.0, usedCount());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void recoverUnflushedTransactionsFromJournal() {
+        //given
+        willAnswer(invocation -> {
+            Consumer<JournalRecord> consumer = invocation.getArgument(0);
+            consumer.accept(record(1L, "tx1", 1000L, 9000L));
+            consumer.accept(record(2L, "tx2", 500L, 8500L));
+            // 다른 계좌의 거래는 원장과 무관하다
+            consumer.accept(new JournalRecord(3L, "tx3", 2L, TransactionType.USE,
+                    TransactionResultType.S, 100L, 100L, LocalDateTime.now(), JournalRecordState.COMMITTED));
+            return null;
+        }).given(transactionJournal).readAll(any());
+        given(transactionRepository.findExistingTransactionIds(anyCollection()))
+                .willReturn(List.of("tx1"));
+        given(accountCache.getUser(12L))
+                .willReturn(Optional.of(account.getAccountUser()));
+        ArgumentCaptor<List<Transaction>> captor = ArgumentCaptor.forClass(List.class);
+
+        //when
+        load();
+        TransactionDto transactionDto = ledger.useBalance(12L, ACCOUNT_NUMBER, 500L);
+
+        //then
+        verify(transactionRepository).saveAll(captor.capture());
+        assertEquals(1, captor.getValue().size());
+        assertEquals("tx2", captor.getValue().get(0).getTransactionId());
+        assertEquals(8500L, account.getBalance());
+        assertEquals(8000L, transactionDto.getBalanceSnapshot());
+    }
+
+    @Test
+    void refuseLoadWhenAccountIsOwnedByAnotherNode() {
+        //given
+        given(redissonClient.getLock("LEDGER_OWNER:" + ACCOUNT_NUMBER))
+                .willReturn(ownership);
+        given(ownership.tryLock()).willReturn(false);
+
+        //when
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> ledger.load());
+
+        //then
+        assertTrue(exception.getMessage().contains(ACCOUNT_NUMBER));
+        verify(accountRepository, never()).findByAccountNumberIn(anyCollection());
+        assertThrows(AccountException.class,
+                () -> ledger.useBalance(12L, ACCOUNT_NUMBER, 200L));
+    }
+
+    @Test
+    void rejectBeforeLoaded() {
+        //given
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> ledger.useBalance(12L, ACCOUNT_NUMBER, 200L));
+
+        //then
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, exception.getErrorCode());
+        verify(transactionJournal, times(0)).appendRecord(any());
+    }
+
+    private double usedCount() {
+        return meterRegistry.get("account.transactions")
+                .tag("type", "USE").tag("result", "S").counter().count();
+    }
+
+    private void load() {
+        given(redissonClient.getLock(anyString()))
+                .willReturn(ownership);
+        given(ownership.tryLock()).willReturn(true);
+        given(transactionManager.getTransaction(any()))
+                .willReturn(new SimpleTransactionStatus());
+        given(accountRepository.findByAccountNumberIn(anyCollection()))
+                .willReturn(List.of(account));
+        ledger.load();
+    }
+
+    private static JournalRecord record(long sequence, String transactionId,
+                                        long amount, long balanceSnapshot) {
+        return new JournalRecord(sequence, transactionId, 1L, TransactionType.USE,
+                TransactionResultType.S, amount, balanceSnapshot, LocalDateTime.now(),
+                JournalRecordState.COMMITTED);
+    }
+}
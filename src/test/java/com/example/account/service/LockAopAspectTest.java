@@ -1,8 +1,11 @@
 package com.example.account.service;
 
+import com.example.account.aop.AccountLock;
 import com.example.account.dto.UseBalance;
 import com.example.account.exception.AccountException;
 import com.example.account.type.ErrorCode;
+import com.example.account.type.LockScope;
+import com.example.account.type.LockType;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -10,20 +13,35 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
 class LockAopAspectTest {
     @Mock
-    private LockService lockService;
+    private LockStrategyRegistry lockStrategyRegistry;
+
+    @Mock
+    private LockStrategy lockStrategy;
+
+    @Mock
+    private AccountLock accountLock;
 
     @Mock
     private ProceedingJoinPoint proceedingJoinPoint;
 
+    @Mock
+    private ObjectProvider<BalanceLedger> balanceLedger;
+
+    @Mock
+    private AccountMetrics accountMetrics;
+
     @InjectMocks
     private LockAopAspect lockAopAspect;
 
@@ -33,52 +51,101 @@ class LockAopAspectTest {
         ArgumentCaptor<String> lockArgumentCaptor =
                 ArgumentCaptor.forClass(String.class);
 
-        ArgumentCaptor<String> unLockArgumentCaptor =
-                ArgumentCaptor.forClass(String.class);
-
         UseBalance.Request request = new UseBalance.Request(
                 123L, "1234", 1000L
         );
+        given(accountLock.type()).willReturn(LockType.DEFAULT);
+        given(accountLock.tryLockTime()).willReturn(1000L);
+        given(accountLock.scope()).willReturn(LockScope.ALL);
+        given(lockStrategyRegistry.resolve(LockType.DEFAULT))
+                .willReturn(lockStrategy);
+        given(lockStrategy.getType()).willReturn(LockType.REDIS);
+        given(lockStrategy.executeWithLock(anyString(), anyLong(), any()))
+                .willAnswer(invocation -> invocation
+                        .<LockStrategy.LockedInvocation>getArgument(2).proceed());
+        given(proceedingJoinPoint.proceed()).willReturn("result");
 
         //when
-        lockAopAspect.aroundMethod(proceedingJoinPoint, request);
+        Object result = lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock, request);
+
         //then
-        verify(lockService, times(1))
-                .lock(lockArgumentCaptor.capture());
-        verify(lockService, times(1))
-                .unlock(unLockArgumentCaptor.capture());
+        verify(lockStrategy, times(1))
+                .executeWithLock(lockArgumentCaptor.capture(), eq(1000L), any());
+        verify(proceedingJoinPoint, times(1)).proceed();
+
+        verify(accountMetrics, times(1)).recordLockWait(eq(LockType.REDIS), anyLong());
+        verify(accountMetrics, times(1)).recordLockHold(eq(LockType.REDIS), anyLong());
 
         assertEquals("1234", lockArgumentCaptor.getValue());
-        assertEquals("1234", unLockArgumentCaptor.getValue());
+        assertEquals("result", result);
     }
 
     @Test
-    void lockAndUnlock_evenIfThrow() throws Throwable {
+    void lockStrategyPerAnnotation() throws Throwable {
         //given
-        ArgumentCaptor<String> lockArgumentCaptor =
-                ArgumentCaptor.forClass(String.class);
-
-        ArgumentCaptor<String> unLockArgumentCaptor =
-                ArgumentCaptor.forClass(String.class);
-
         UseBalance.Request request = new UseBalance.Request(
                 123L, "54321", 1000L
         );
-
-        given(proceedingJoinPoint.proceed())
+        given(accountLock.type()).willReturn(LockType.PESSIMISTIC);
+        given(accountLock.tryLockTime()).willReturn(3000L);
+        given(accountLock.scope()).willReturn(LockScope.ALL);
+        given(lockStrategyRegistry.resolve(LockType.PESSIMISTIC))
+                .willReturn(lockStrategy);
+        given(lockStrategy.getType()).willReturn(LockType.PESSIMISTIC);
+        given(lockStrategy.executeWithLock(anyString(), anyLong(), any()))
                 .willThrow(new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK));
 
         //when
-        assertThrows(AccountException.class, () ->
-                lockAopAspect.aroundMethod(proceedingJoinPoint, request));
+        AccountException exception = assertThrows(AccountException.class, () ->
+                lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock, request));
 
         //then
-        verify(lockService, times(1))
-                .lock(lockArgumentCaptor.capture());
-        verify(lockService, times(1))
-                .unlock(unLockArgumentCaptor.capture());
+        verify(lockStrategy, times(1))
+                .executeWithLock(eq("54321"), eq(3000L), any());
+        verify(proceedingJoinPoint, times(0)).proceed();
+        verify(accountMetrics, times(1)).recordLockFailure(LockType.PESSIMISTIC);
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, exception.getErrorCode());
+    }
 
-        assertEquals("54321", lockArgumentCaptor.getValue());
-        assertEquals("54321", unLockArgumentCaptor.getValue());
+    @Test
+    void skipRequestScopeForSingleWriter() throws Throwable {
+        //given
+        UseBalance.Request request = new UseBalance.Request(
+                123L, "1234", 1000L
+        );
+        given(accountLock.type()).willReturn(LockType.DEFAULT);
+        given(accountLock.scope()).willReturn(LockScope.REQUEST);
+        given(lockStrategyRegistry.resolve(LockType.DEFAULT))
+                .willReturn(lockStrategy);
+        given(lockStrategy.getType()).willReturn(LockType.SINGLE_WRITER);
+        given(proceedingJoinPoint.proceed()).willReturn("result");
+
+        //when
+        Object result = lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock, request);
+
+        //then
+        verify(lockStrategy, never()).executeWithLock(anyString(), anyLong(), any());
+        assertEquals("result", result);
+    }
+
+    @Test
+    void skipAccountWorkScopeForOtherStrategies() throws Throwable {
+        //given
+        UseBalance.Request request = new UseBalance.Request(
+                123L, "1234", 1000L
+        );
+        given(accountLock.type()).willReturn(LockType.DEFAULT);
+        given(accountLock.scope()).willReturn(LockScope.ACCOUNT_WORK);
+        given(lockStrategyRegistry.resolve(LockType.DEFAULT))
+                .willReturn(lockStrategy);
+        given(lockStrategy.getType()).willReturn(LockType.REDIS);
+        given(proceedingJoinPoint.proceed()).willReturn("result");
+
+        //when
+        Object result = lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock, request);
+
+        //then
+        verify(lockStrategy, never()).executeWithLock(anyString(), anyLong(), any());
+        assertEquals("result", result);
     }
-}
\ No newline at end of file
+}
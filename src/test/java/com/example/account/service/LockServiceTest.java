@@ -7,12 +7,21 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RFuture;
 import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
 class LockServiceTest {
@@ -53,4 +62,150 @@ class LockServiceTest {
         //then
         assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, exception.getErrorCode());
     }
-}
\ No newline at end of file
+
+    @Test
+    void failGetLock_localLockHeldBySameNode() throws Exception {
+        //given
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rLock);
+        given(rLock.tryLock(anyLong(), anyLong(), any()))
+                .willReturn(true);
+        lockService.lock("123");
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            //when
+            ExecutionException exception = assertThrows(ExecutionException.class,
+                    () -> executor.submit(() -> lockService.lock("123")).get());
+
+            //then
+            assertTrue(exception.getCause() instanceof AccountException);
+            assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK,
+                    ((AccountException) exception.getCause()).getErrorCode());
+            verify(redissonClient, times(1)).getLock(anyString());
+        } finally {
+            lockService.unlock("123");
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void successGetLock_afterLocalUnlock() throws Exception {
+        //given
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rLock);
+        given(rLock.tryLock(anyLong(), anyLong(), any()))
+                .willReturn(true);
+        lockService.lock("123");
+        lockService.unlock("123");
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            //when
+            //then
+            assertDoesNotThrow(() -> executor.submit(() -> {
+                lockService.lock("123");
+                lockService.unlock("123");
+            }).get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void failGetLock_releasesLocalLock() throws Exception {
+        //given
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rLock);
+        given(rLock.tryLock(anyLong(), anyLong(), any()))
+                .willReturn(false, true);
+        assertThrows(AccountException.class, () -> lockService.lock("123"));
+
+        //when
+        //then
+        assertDoesNotThrow(() -> lockService.lock("123"));
+        lockService.unlock("123");
+    }
+
+    @Test
+    void executeWithLock_lockAndUnlock() throws Throwable {
+        //given
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rLock);
+        given(rLock.tryLock(anyLong(), anyLong(), any()))
+                .willReturn(true);
+
+        //when
+        Object result = lockService.executeWithLock("1234", 1000L, () -> "result");
+
+        //then
+        verify(rLock, times(1)).tryLock(anyLong(), anyLong(), any());
+        verify(rLock, times(1)).unlock();
+        assertEquals("result", result);
+    }
+
+    @Test
+    void executeWithLock_unlockEvenIfThrow() throws Throwable {
+        //given
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rLock);
+        given(rLock.tryLock(anyLong(), anyLong(), any()))
+                .willReturn(true);
+
+        //when
+        assertThrows(AccountException.class, () ->
+                lockService.executeWithLock("54321", 1000L, () -> {
+                    throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
+                }));
+
+        //then
+        verify(rLock, times(1)).unlock();
+        assertDoesNotThrow(() -> lockService.lock("54321"));
+        lockService.unlock("54321");
+    }
+
+    @Test
+    void lockAsync_returnsOwnerId() throws Exception {
+        //given
+        RFuture<Boolean> locked = mockFuture(true);
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rLock);
+        given(rLock.tryLockAsync(anyLong(), anyLong(), any(), anyLong()))
+                .willReturn(locked);
+
+        //when
+        long first = lockService.lockAsync("123", 1000L).get();
+        long second = lockService.lockAsync("123", 1000L).get();
+
+        //then
+        // 요청마다 다른 소유자로 잡는다
+        assertNotEquals(first, second);
+        verify(rLock).tryLockAsync(eq(1000L), anyLong(), any(), eq(first));
+    }
+
+    @Test
+    void lockAsync_failGetLock() {
+        //given
+        RFuture<Boolean> notLocked = mockFuture(false);
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rLock);
+        given(rLock.tryLockAsync(anyLong(), anyLong(), any(), anyLong()))
+                .willReturn(notLocked);
+
+        //when
+        ExecutionException exception = assertThrows(ExecutionException.class,
+                () -> lockService.lockAsync("123", 1000L).get());
+
+        //then
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK,
+                ((AccountException) exception.getCause()).getErrorCode());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RFuture<Boolean> mockFuture(boolean result) {
+        RFuture<Boolean> future = mock(RFuture.class);
+        given(future.toCompletableFuture())
+                .willReturn(CompletableFuture.completedFuture(result));
+        return future;
+    }
+}
@@ -0,0 +1,231 @@
+package com.example.account.service;
+
+import com.example.account.domain.Account;
+import com.example.account.domain.Transaction;
+import com.example.account.dto.JournalRecord;
+import com.example.account.type.JournalForcePolicy;
+import com.example.account.type.JournalRecordState;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MappedTransactionJournalTest {
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void appendAndReadAcrossSegments() throws IOException {
+        //given
+        // 세그먼트 하나에 레코드 2건
+        MappedTransactionJournal journal = open(MappedTransactionJournal.RECORD_SIZE * 2);
+
+        //when
+        for (int i = 1; i <= 5; i++) {
+            journal.write(record("tx" + i, i * 100L));
+        }
+        journal.close();
+
+        //then
+        List<JournalRecord> records = readAll(journal);
+        assertEquals(5, records.size());
+        assertEquals(3, countSegments());
+        assertEquals("tx1", records.get(0).getTransactionId());
+        assertEquals(5L, records.get(4).getSequence());
+        assertEquals(500L, records.get(4).getAmount());
+        assertEquals(TransactionType.USE, records.get(4).getTransactionType());
+        assertEquals(LocalDateTime.of(2022, 6, 1, 12, 30, 15, 123456789),
+                records.get(4).getTransactedAt());
+    }
+
+    @Test
+    void continueSequenceAfterReopen() throws IOException {
+        //given
+        MappedTransactionJournal journal = open(MappedTransactionJournal.RECORD_SIZE * 2);
+        journal.write(record("tx1", 100L));
+        journal.write(record("tx2", 200L));
+        journal.close();
+
+        //when
+        MappedTransactionJournal reopened = open(MappedTransactionJournal.RECORD_SIZE * 2);
+        long sequence = reopened.write(record("tx3", 300L));
+        reopened.close();
+
+        //then
+        assertEquals(3L, sequence);
+        assertEquals(3, readAll(reopened).size());
+    }
+
+    @Test
+    void stopAtCorruptedRecord() throws IOException {
+        //given
+        MappedTransactionJournal journal = open(MappedTransactionJournal.RECORD_SIZE * 10);
+        journal.write(record("tx1", 100L));
+        journal.write(record("tx2", 200L));
+        journal.write(record("tx3", 300L));
+        journal.close();
+
+        //when
+        // 두 번째 레코드를 쓰다 만 것처럼 잔액 스냅샷 한 바이트를 바꾼다
+        try (RandomAccessFile file = new RandomAccessFile(segment(0).toFile(), "rw")) {
+            file.seek(MappedTransactionJournal.RECORD_SIZE + 40);
+            file.write(0x7f);
+        }
+        MappedTransactionJournal reopened = open(MappedTransactionJournal.RECORD_SIZE * 10);
+        long sequence = reopened.write(record("tx4", 400L));
+        reopened.close();
+
+        //then
+        // 손상된 레코드부터 덮어쓰고, 그 뒤의 레코드는 버린다
+        List<JournalRecord> records = readAll(reopened);
+        assertEquals(2, records.size());
+        assertEquals(2L, sequence);
+        assertEquals("tx4", records.get(1).getTransactionId());
+    }
+
+    @Test
+    void appendBeforeCommitWithCommitMarker() throws IOException {
+        //given
+        MappedTransactionJournal journal = open(MappedTransactionJournal.RECORD_SIZE * 10);
+        TransactionSynchronizationManager.initSynchronization();
+
+        //when
+        journal.append(transaction("tx1"));
+        List<TransactionSynchronization> synchronizations =
+                TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(synchronization -> synchronization.beforeCommit(false));
+        // DB 커밋 전 장애: 커밋 표시가 없으므로 읽지 않는다
+        List<JournalRecord> beforeCommit = readAll(journal);
+        synchronizations.forEach(synchronization ->
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        journal.close();
+
+        //then
+        assertEquals(0, beforeCommit.size());
+        List<JournalRecord> records = readAll(journal);
+        assertEquals(1, records.size());
+        assertEquals("tx1", records.get(0).getTransactionId());
+        assertEquals(JournalRecordState.COMMITTED, records.get(0).getState());
+        assertEquals(2L, records.get(0).getSequence());
+    }
+
+    @Test
+    void skipRolledBackAppend() throws IOException {
+        //given
+        MappedTransactionJournal journal = open(MappedTransactionJournal.RECORD_SIZE * 10);
+        TransactionSynchronizationManager.initSynchronization();
+
+        //when
+        journal.append(transaction("tx1"));
+        List<TransactionSynchronization> synchronizations =
+                TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(synchronization -> synchronization.beforeCommit(false));
+        synchronizations.forEach(synchronization ->
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        long sequence = journal.write(record("tx2", 200L));
+        journal.close();
+
+        //then
+        // PREPARED, ABORTED, tx2
+        assertEquals(3L, sequence);
+        List<JournalRecord> records = readAll(journal);
+        assertEquals(1, records.size());
+        assertEquals("tx2", records.get(0).getTransactionId());
+    }
+
+    @Test
+    void readOnlyCommittedRecords() throws IOException {
+        //given
+        MappedTransactionJournal journal = open(MappedTransactionJournal.RECORD_SIZE * 2);
+        journal.write(record("tx1", 100L).withState(JournalRecordState.PREPARED));
+        journal.write(record("tx2", 200L).withState(JournalRecordState.PREPARED));
+        journal.write(record("tx1", 100L));
+        journal.write(record("tx3", 300L).withState(JournalRecordState.PREPARED));
+        journal.write(record("tx3", 300L).withState(JournalRecordState.ABORTED));
+        journal.close();
+
+        //when
+        List<JournalRecord> records = readAll(journal);
+
+        //then
+        // 세그먼트가 넘어가도 커밋 표시를 찾고, tx2 는 커밋 결과를 알 수 없으므로 건너뛴다
+        assertEquals(1, records.size());
+        assertEquals("tx1", records.get(0).getTransactionId());
+        assertEquals(3L, records.get(0).getSequence());
+    }
+
+    private MappedTransactionJournal open(long segmentSize) throws IOException {
+        MappedTransactionJournal journal = new MappedTransactionJournal(
+                directory.toString(), DataSize.ofBytes(segmentSize),
+                JournalForcePolicy.EVERY_RECORD, 1);
+        journal.open();
+        return journal;
+    }
+
+    private static List<JournalRecord> readAll(MappedTransactionJournal journal) {
+        List<JournalRecord> records = new ArrayList<>();
+        journal.readAll(records::add);
+        return records;
+    }
+
+    private Path segment(int index) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().collect(Collectors.toList()).get(index);
+        }
+    }
+
+    private int countSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.collect(Collectors.toList()).size();
+        }
+    }
+
+    private static Transaction transaction(String transactionId) {
+        return Transaction.builder()
+                .account(Account.builder()
+                        .id(1L)
+                        .build())
+                .transactionType(TransactionType.USE)
+                .transactionResultType(TransactionResultType.S)
+                .amount(1000L)
+                .balanceSnapshot(9000L)
+                .transactionId(transactionId)
+                .transactedAt(LocalDateTime.of(2022, 6, 1, 12, 30, 15))
+                .build();
+    }
+
+    private static JournalRecord record(String transactionId, long amount) {
+        return JournalRecord.builder()
+                .transactionId(transactionId)
+                .accountId(1L)
+                .transactionType(TransactionType.USE)
+                .transactionResultType(TransactionResultType.S)
+                .amount(amount)
+                .balanceSnapshot(10000L - amount)
+                .transactedAt(LocalDateTime.of(2022, 6, 1, 12, 30, 15, 123456789))
+                .build();
+    }
+}
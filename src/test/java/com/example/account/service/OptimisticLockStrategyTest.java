@@ -0,0 +1,85 @@
+package com.example.account.service;
+
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OptimisticLockStrategyTest {
+    private final OptimisticLockStrategy optimisticLockStrategy = new OptimisticLockStrategy();
+
+    @Test
+    void retryOnVersionConflict() throws Throwable {
+        //given
+        AtomicInteger attempts = new AtomicInteger();
+
+        //when
+        Object result = optimisticLockStrategy.executeWithLock("1234567890", 1000L, () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException("Account", 1L);
+            }
+            return "result";
+        });
+
+        //then
+        assertEquals(3, attempts.get());
+        assertEquals("result", result);
+    }
+
+    @Test
+    void retryEvenIfInvocationOutlastsTryLockTime() throws Throwable {
+        //given
+        AtomicInteger attempts = new AtomicInteger();
+
+        //when
+        Object result = optimisticLockStrategy.executeWithLock("1234567890", 1L, () -> {
+            if (attempts.incrementAndGet() < 2) {
+                Thread.sleep(20L);
+                throw new ObjectOptimisticLockingFailureException("Account", 1L);
+            }
+            return "result";
+        });
+
+        //then
+        assertEquals(2, attempts.get());
+        assertEquals("result", result);
+    }
+
+    @Test
+    void failAfterMaxAttempts() {
+        //given
+        AtomicInteger attempts = new AtomicInteger();
+
+        //when
+        AccountException exception = assertThrows(AccountException.class, () ->
+                optimisticLockStrategy.executeWithLock("1234567890", 1000L, () -> {
+                    attempts.incrementAndGet();
+                    throw new ObjectOptimisticLockingFailureException("Account", 1L);
+                }));
+
+        //then
+        assertEquals(3, attempts.get());
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, exception.getErrorCode());
+    }
+
+    @Test
+    void doNotRetryBusinessFailure() {
+        //given
+        AtomicInteger attempts = new AtomicInteger();
+
+        //when
+        AccountException exception = assertThrows(AccountException.class, () ->
+                optimisticLockStrategy.executeWithLock("1234567890", 1000L, () -> {
+                    attempts.incrementAndGet();
+                    throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
+                }));
+
+        //then
+        assertEquals(1, attempts.get());
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
+    }
+}
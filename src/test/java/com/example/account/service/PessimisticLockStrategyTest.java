@@ -0,0 +1,93 @@
+package com.example.account.service;
+
+import com.example.account.exception.AccountException;
+import com.example.account.repository.AccountRepository;
+import com.example.account.type.ErrorCode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class PessimisticLockStrategyTest {
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private TransactionStatus transactionStatus;
+
+    @InjectMocks
+    private PessimisticLockStrategy pessimisticLockStrategy;
+
+    @Test
+    void lockRowAndCommit() throws Throwable {
+        //given
+        given(transactionManager.getTransaction(any()))
+                .willReturn(transactionStatus);
+        given(accountRepository.findForUpdateByAccountNumber(anyString(), anyLong()))
+                .willReturn(Optional.empty());
+
+        //when
+        Object result = pessimisticLockStrategy.executeWithLock(
+                "1234567890", 1000L, () -> "result");
+
+        //then
+        verify(accountRepository, times(1)).findForUpdateByAccountNumber("1234567890", 1000L);
+        verify(transactionManager, times(1)).commit(transactionStatus);
+        assertEquals("result", result);
+    }
+
+    @Test
+    void commitEvenIfBusinessFailure() {
+        //given
+        given(transactionManager.getTransaction(any()))
+                .willReturn(transactionStatus);
+
+        //when
+        AccountException exception = assertThrows(AccountException.class, () ->
+                pessimisticLockStrategy.executeWithLock("1234567890", 1000L, () -> {
+                    throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
+                }));
+
+        //then
+        verify(transactionManager, times(1)).commit(transactionStatus);
+        verify(transactionManager, never()).rollback(any());
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
+    }
+
+    @Test
+    void failGetRowLock() {
+        //given
+        given(transactionManager.getTransaction(any()))
+                .willReturn(transactionStatus);
+        given(accountRepository.findForUpdateByAccountNumber(anyString(), anyLong()))
+                .willThrow(new CannotAcquireLockException("lock timeout"));
+
+        //when
+        AccountException exception = assertThrows(AccountException.class, () ->
+                pessimisticLockStrategy.executeWithLock("1234567890", 1000L, () -> "result"));
+
+        //then
+        verify(transactionManager, times(1)).rollback(transactionStatus);
+        verify(transactionManager, never()).commit(any());
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, exception.getErrorCode());
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.account.service;
+
+import com.example.account.dto.ReconciliationReport;
+import com.example.account.type.ReconciliationStatus;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 잔액 대사 처리량 (./gradlew benchmark)
+ * 계좌 10,000개 x 성공 거래 100건 = 거래 1,000,000건을 DB 안에서 만들고 대사한다.
+ * 다른 벤치마크와 같은 JVM 에서 돌기 때문에 redis 포트와 DB 를 따로 쓴다.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.redis.port=6380",
+        "spring.datasource.url=jdbc:h2:file:./build/reconciliation-benchmark/db",
+        "spring.jpa.properties.hibernate.show_sql=false",
+        "spring.jpa.properties.hibernate.format_sql=false"
+})
+class ReconciliationBenchmarkTest {
+    private static final long ACCOUNTS = Long.getLong("benchmark.reconciliation.accounts", 10_000L);
+    private static final long TRANSACTIONS_PER_ACCOUNT = 100L;
+    private static final long OPENING_BALANCE = 1_000_000L;
+    private static final long AMOUNT = 100L;
+    private static final long ID_OFFSET = 100_000_000L;
+    private static final LocalDateTime FROM = LocalDateTime.of(2022, 1, 1, 0, 0);
+
+    @Autowired
+    private ReconciliationService reconciliationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void reconcileMillionTransactions() {
+        jdbcTemplate.update("insert into account"
+                        + " (id, account_user_id, account_number, account_status, balance, opening_balance, version,"
+                        + " registered_at, created_at, updated_at)"
+                        + " select x + ?, 1, cast(6000000000 + x as varchar), 'IN_USE', ?, ?, 0,"
+                        + " ?, now(), now()"
+                        + " from system_range(1, ?)",
+                ID_OFFSET, OPENING_BALANCE - AMOUNT * TRANSACTIONS_PER_ACCOUNT, OPENING_BALANCE,
+                FROM, ACCOUNTS);
+        jdbcTemplate.update("insert into transaction"
+                        + " (id, account_id, transaction_type, transaction_result_type, amount,"
+                        + " balance_snapshot, transaction_id, transacted_at, created_at, updated_at)"
+                        + " select x + ?, ((x - 1) / ?) + 1 + ?, 'USE', 'S', ?,"
+                        + " ? - ? * (mod(x - 1, ?) + 1), concat('reconcile', x),"
+                        + " dateadd('SECOND', mod(x - 1, ?), ?), now(), now()"
+                        + " from system_range(1, ?)",
+                ID_OFFSET, TRANSACTIONS_PER_ACCOUNT, ID_OFFSET, AMOUNT,
+                OPENING_BALANCE, AMOUNT, TRANSACTIONS_PER_ACCOUNT,
+                TRANSACTIONS_PER_ACCOUNT, FROM, ACCOUNTS * TRANSACTIONS_PER_ACCOUNT);
+        // 세 계좌의 잔액을 틀어 놓는다
+        jdbcTemplate.update("update account set balance = balance + 1 where id in (?, ?, ?)",
+                ID_OFFSET + 1, ID_OFFSET + ACCOUNTS / 2, ID_OFFSET + ACCOUNTS);
+
+        long start = System.nanoTime();
+        ReconciliationReport report = reconciliationService.reconcile();
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        assertEquals(ReconciliationStatus.COMPLETED, report.getStatus());
+        assertEquals(ACCOUNTS * TRANSACTIONS_PER_ACCOUNT, report.getReplayedTransactions());
+        assertEquals(3, report.getDriftCount());
+        System.out.printf("Reconciliation : %d accounts, %d transactions in %d ms,"
+                        + " %.0f transactions/sec (%d chunks)%n",
+                report.getReconciledAccounts(), report.getReplayedTransactions(),
+                elapsed.toMillis(),
+                report.getReplayedTransactions() * 1000.0 / Math.max(1, elapsed.toMillis()),
+                report.getCompletedChunks());
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.account.service;
+
+import com.example.account.dto.AccountBalance;
+import com.example.account.dto.AccountDrift;
+import com.example.account.dto.ReconciliationReport;
+import com.example.account.dto.TransactionReplay;
+import com.example.account.repository.AccountRepository;
+import com.example.account.repository.TransactionRepository;
+import com.example.account.type.ReconciliationStatus;
+import com.example.account.type.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ReconciliationServiceTest {
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void replayMatches() {
+        //given
+        AccountBalance account = new AccountBalance(1L, "1000000001", 8500L, 10000L);
+
+        //when
+        Optional<AccountDrift> drift = ReconciliationService.replay(account, Arrays.asList(
+                new TransactionReplay(1L, TransactionType.USE, 1000L, 9000L),
+                new TransactionReplay(1L, TransactionType.USE, 1000L, 8000L),
+                new TransactionReplay(1L, TransactionType.CANCEL, 500L, 8500L)));
+
+        //then
+        assertFalse(drift.isPresent());
+    }
+
+    @Test
+    void replayDetectsStoredBalanceDrift() {
+        //given
+        AccountBalance account = new AccountBalance(1L, "1000000001", 7000L, 10000L);
+
+        //when
+        AccountDrift drift = ReconciliationService.replay(account, Arrays.asList(
+                new TransactionReplay(1L, TransactionType.USE, 1000L, 9000L),
+                new TransactionReplay(1L, TransactionType.USE, 1000L, 8000L))).get();
+
+        //then
+        assertEquals(7000L, drift.getStoredBalance());
+        assertEquals(8000L, drift.getReplayedBalance());
+        assertEquals(8000L, drift.getLatestSnapshot());
+        assertEquals(0, drift.getMismatchedSnapshots());
+    }
+
+    @Test
+    void replayDetectsSnapshotDrift() {
+        //given
+        AccountBalance account = new AccountBalance(1L, "1000000001", 7500L, 10000L);
+
+        //when
+        AccountDrift drift = ReconciliationService.replay(account, Arrays.asList(
+                new TransactionReplay(1L, TransactionType.USE, 1000L, 9000L),
+                new TransactionReplay(1L, TransactionType.USE, 1000L, 7500L))).get();
+
+        //then
+        assertEquals(8000L, drift.getReplayedBalance());
+        assertEquals(7500L, drift.getLatestSnapshot());
+        assertEquals(1, drift.getMismatchedSnapshots());
+    }
+
+    @Test
+    void replayDetectsFirstTransactionDrift() {
+        //given
+        AccountBalance account = new AccountBalance(1L, "1000000001", 8500L, 10000L);
+
+        //when
+        AccountDrift drift = ReconciliationService.replay(account, Arrays.asList(
+                new TransactionReplay(1L, TransactionType.USE, 1000L, 9500L),
+                new TransactionReplay(1L, TransactionType.USE, 1000L, 8500L))).get();
+
+        //then
+        assertEquals(8000L, drift.getReplayedBalance());
+        assertEquals(2, drift.getMismatchedSnapshots());
+    }
+
+    @Test
+    void replayFromFirstSnapshotWithoutOpeningBalance() {
+        //given
+        // 개설 잔액이 없는 예전 계좌는 첫 거래의 snapshot 을 믿는다
+        AccountBalance account = new AccountBalance(1L, "1000000001", 8500L, null);
+
+        //when
+        Optional<AccountDrift> drift = ReconciliationService.replay(account, Arrays.asList(
+                new TransactionReplay(1L, TransactionType.USE, 1000L, 9500L),
+                new TransactionReplay(1L, TransactionType.USE, 1000L, 8500L)));
+
+        //then
+        assertFalse(drift.isPresent());
+    }
+
+    @Test
+    void replayWithoutTransactions() {
+        assertFalse(ReconciliationService.replay(
+                new AccountBalance(1L, "1000000001", 10000L, 10000L),
+                Collections.emptyList()).isPresent());
+        assertFalse(ReconciliationService.replay(
+                new AccountBalance(1L, "1000000001", 1000L, null),
+                Collections.emptyList()).isPresent());
+    }
+
+    @Test
+    void replayDetectsDriftWithoutTransactions() {
+        //given
+        AccountBalance account = new AccountBalance(1L, "1000000001", 9000L, 10000L);
+
+        //when
+        AccountDrift drift = ReconciliationService.replay(account, Collections.emptyList()).get();
+
+        //then
+        assertEquals(10000L, drift.getReplayedBalance());
+        assertNull(drift.getLatestSnapshot());
+    }
+
+    @Test
+    void reconcileInChunks() {
+        //given
+        ReconciliationService reconciliationService = new ReconciliationService(
+                accountRepository, transactionRepository, transactionManager, 2, 2, 10);
+        given(accountRepository.findMinId()).willReturn(1L);
+        given(accountRepository.findMaxId()).willReturn(5L);
+        given(accountRepository.findBalancesByIdBetween(1L, 2L))
+                .willReturn(Arrays.asList(
+                        new AccountBalance(1L, "1000000001", 9000L, 10000L),
+                        new AccountBalance(2L, "1000000002", 100L, 10000L)));
+        given(accountRepository.findBalancesByIdBetween(3L, 4L))
+                .willReturn(Collections.singletonList(
+                        new AccountBalance(3L, "1000000003", 9000L, 10000L)));
+        given(accountRepository.findBalancesByIdBetween(5L, 5L))
+                .willReturn(Collections.emptyList());
+        given(transactionRepository.findReplayByAccountIdBetween(1L, 2L))
+                .willReturn(Arrays.asList(
+                        new TransactionReplay(1L, TransactionType.USE, 1000L, 9000L),
+                        new TransactionReplay(2L, TransactionType.USE, 1000L, 9000L)));
+        given(transactionRepository.findReplayByAccountIdBetween(3L, 4L))
+                .willReturn(Collections.singletonList(
+                        new TransactionReplay(3L, TransactionType.USE, 1000L, 9000L)));
+        given(transactionRepository.findReplayByAccountIdBetween(5L, 5L))
+                .willReturn(Collections.emptyList());
+
+        //when
+        ReconciliationReport report = reconciliationService.reconcile();
+        reconciliationService.shutdown();
+
+        //then
+        assertEquals(ReconciliationStatus.COMPLETED, report.getStatus());
+        assertEquals(3, report.getTotalChunks());
+        assertEquals(3, report.getCompletedChunks());
+        assertEquals(3, report.getReconciledAccounts());
+        assertEquals(3, report.getReplayedTransactions());
+        assertEquals(1, report.getDriftCount());
+        assertEquals("1000000002", report.getDrifts().get(0).getAccountNumber());
+        verify(transactionManager, times(3)).commit(null);
+    }
+}
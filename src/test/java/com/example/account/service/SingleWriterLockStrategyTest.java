@@ -0,0 +1,87 @@
+package com.example.account.service;
+
+import com.example.account.exception.AccountException;
+import com.example.account.profiling.ServerTimings;
+import com.example.account.type.ErrorCode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleWriterLockStrategyTest {
+    private final AccountExecutionEngine accountExecutionEngine = new AccountExecutionEngine(1, 10, new SimpleMeterRegistry());
+    private final SingleWriterLockStrategy singleWriterLockStrategy =
+            new SingleWriterLockStrategy(accountExecutionEngine);
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        accountExecutionEngine.shutdown();
+    }
+
+    @Test
+    void executeOnShardThread() throws Throwable {
+        //given
+        //when
+        Object result = singleWriterLockStrategy.executeWithLock("1234567890", 1000L,
+                () -> Thread.currentThread().getName());
+
+        //then
+        assertTrue(((String) result).startsWith("account-engine-0-"));
+    }
+
+    @Test
+    void carryServerTimingsToShardThread() throws Throwable {
+        //given
+        ServerTimings.enable();
+        ServerTimings timings = ServerTimings.begin();
+
+        //when
+        Object carried;
+        try {
+            carried = singleWriterLockStrategy.executeWithLock("1234567890", 1000L,
+                    ServerTimings::current);
+        } finally {
+            ServerTimings.end();
+        }
+        Object leftOnShard = singleWriterLockStrategy.executeWithLock("1234567890", 1000L,
+                ServerTimings::current);
+
+        //then
+        assertSame(timings, carried);
+        assertNull(leftOnShard);
+    }
+
+    @Test
+    void failAndSkipWhenShardDoesNotStartInTime() throws Throwable {
+        //given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Object> running = accountExecutionEngine.submit("1000000000", () -> {
+            started.countDown();
+            release.await();
+            return null;
+        });
+        started.await();
+        AtomicBoolean executed = new AtomicBoolean();
+
+        //when
+        AccountException exception = assertThrows(AccountException.class, () ->
+                singleWriterLockStrategy.executeWithLock("1234567890", 50L, () -> {
+                    executed.set(true);
+                    return "result";
+                }));
+        release.countDown();
+        running.get();
+        // 같은 shard 의 다음 작업이 끝났으면 포기한 작업도 큐에서 빠졌다
+        singleWriterLockStrategy.executeWithLock("1234567890", 1000L, () -> null);
+
+        //then
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, exception.getErrorCode());
+        assertFalse(executed.get());
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.account.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeOrderedTransactionIdGeneratorTest {
+    @Test
+    void generateMonotonicIdsWithinSameMillisecond() {
+        //given
+        Clock fixed = Clock.fixed(Instant.parse("2022-06-01T00:00:00Z"), ZoneOffset.UTC);
+        TimeOrderedTransactionIdGenerator generator =
+                new TimeOrderedTransactionIdGenerator(fixed, 7);
+
+        //when
+        //then
+        String previous = generator.generate();
+        assertEquals(TimeOrderedTransactionIdGenerator.LENGTH, previous.length());
+        // 순번(4096)을 넘겨도 계속 증가해야 한다
+        for (int i = 0; i < 10_000; i++) {
+            String next = generator.generate();
+            assertTrue(next.compareTo(previous) > 0, previous + " >= " + next);
+            previous = next;
+        }
+    }
+
+    @Test
+    void keepIncreasingWhenClockGoesBackwards() {
+        //given
+        MutableClock clock = new MutableClock(Instant.parse("2022-06-01T00:00:01Z"));
+        TimeOrderedTransactionIdGenerator generator =
+                new TimeOrderedTransactionIdGenerator(clock, 0);
+        String before = generator.generate();
+
+        //when
+        clock.instant = Instant.parse("2022-06-01T00:00:00Z");
+        String after = generator.generate();
+
+        //then
+        assertTrue(after.compareTo(before) > 0);
+    }
+
+    @Test
+    void uniqueAcrossThreads() throws Exception {
+        //given
+        TimeOrderedTransactionIdGenerator generator = new TimeOrderedTransactionIdGenerator(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        Callable<List<String>> task = () -> {
+            List<String> ids = new ArrayList<>();
+            for (int i = 0; i < 5_000; i++) {
+                ids.add(generator.generate());
+            }
+            return ids;
+        };
+
+        //when
+        Set<String> ids = new HashSet<>();
+        try {
+            for (Future<List<String>> future : executor.invokeAll(List.of(task, task, task, task))) {
+                ids.addAll(future.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        //then
+        assertEquals(20_000, ids.size());
+    }
+
+    @Test
+    void differentNodesDoNotCollide() {
+        //given
+        Clock fixed = Clock.fixed(Instant.parse("2022-06-01T00:00:00Z"), ZoneOffset.UTC);
+
+        //when
+        String node1 = new TimeOrderedTransactionIdGenerator(fixed, 1).generate();
+        String node2 = new TimeOrderedTransactionIdGenerator(fixed, 2).generate();
+
+        //then
+        assertNotEquals(node1, node2);
+    }
+
+    @Test
+    void invalidNodeId() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new TimeOrderedTransactionIdGenerator(1024));
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
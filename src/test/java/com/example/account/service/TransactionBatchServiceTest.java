@@ -0,0 +1,101 @@
+package com.example.account.service;
+
+import com.example.account.dto.TransactionDto;
+import com.example.account.dto.UseBalance;
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import com.example.account.type.LockType;
+import com.example.account.type.TransactionResultType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionBatchServiceTest {
+    @Mock
+    private TransactionService transactionService;
+
+    @Mock
+    private LockStrategyRegistry lockStrategyRegistry;
+
+    @Mock
+    private LockStrategy lockStrategy;
+
+    @Mock
+    private ObjectProvider<BalanceLedger> balanceLedger;
+
+    @InjectMocks
+    private TransactionBatchService transactionBatchService;
+
+    @Test
+    void lockOncePerAccountAndKeepRequestOrder() throws Throwable {
+        //given
+        given(lockStrategyRegistry.resolve(LockType.DEFAULT))
+                .willReturn(lockStrategy);
+        given(lockStrategy.executeWithLock(anyString(), anyLong(), any()))
+                .willAnswer(invocation -> invocation
+                        .<LockStrategy.LockedInvocation>getArgument(2).proceed());
+        given(transactionService.useBalances(anyString(), anyList()))
+                .willAnswer(invocation -> invocation.<List<UseBalance.Request>>getArgument(1)
+                        .stream()
+                        .map(request -> TransactionDto.builder()
+                                .accountNumber(request.getAccountNumber())
+                                .amount(request.getAmount())
+                                .transactionResultType(TransactionResultType.S)
+                                .build())
+                        .collect(Collectors.toList()));
+
+        List<UseBalance.Request> requests = Arrays.asList(
+                new UseBalance.Request(1L, "1000000000", 100L),
+                new UseBalance.Request(1L, "1000000001", 200L),
+                new UseBalance.Request(1L, "1000000000", 300L)
+        );
+
+        //when
+        List<TransactionDto> results = transactionBatchService.useBalances(requests);
+
+        //then
+        verify(lockStrategy, times(1)).executeWithLock(eq("1000000000"), anyLong(), any());
+        verify(lockStrategy, times(1)).executeWithLock(eq("1000000001"), anyLong(), any());
+        assertEquals(3, results.size());
+        assertEquals(100L, results.get(0).getAmount());
+        assertEquals("1000000001", results.get(1).getAccountNumber());
+        assertEquals(300L, results.get(2).getAmount());
+    }
+
+    @Test
+    void failAllRequestsOfLockedAccount() throws Throwable {
+        //given
+        given(lockStrategyRegistry.resolve(LockType.DEFAULT))
+                .willReturn(lockStrategy);
+        given(lockStrategy.executeWithLock(anyString(), anyLong(), any()))
+                .willThrow(new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK));
+
+        //when
+        List<TransactionDto> results = transactionBatchService.useBalances(Arrays.asList(
+                new UseBalance.Request(1L, "1000000000", 100L),
+                new UseBalance.Request(1L, "1000000000", 300L)
+        ));
+
+        //then
+        verify(transactionService, never()).useBalances(anyString(), anyList());
+        assertEquals(2, results.size());
+        assertEquals(TransactionResultType.F, results.get(0).getTransactionResultType());
+        assertEquals(300L, results.get(1).getAmount());
+        assertNull(results.get(1).getTransactionId());
+    }
+}
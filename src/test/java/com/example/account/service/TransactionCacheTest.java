@@ -0,0 +1,77 @@
+package com.example.account.service;
+
+import com.example.account.dto.TransactionDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionCacheTest {
+    @Mock
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void putAndGet() {
+        //given
+        TransactionCache cache = new TransactionCache(10, Duration.ofMinutes(1), meterRegistry);
+
+        //when
+        cache.put(transaction("transactionId"));
+
+        //then
+        assertTrue(cache.get("transactionId").isPresent());
+        assertFalse(cache.get("other").isPresent());
+        assertEquals(1, cache.getStats().hitCount());
+        assertEquals(1, cache.getStats().missCount());
+    }
+
+    @Test
+    void putAfterCommit() {
+        //given
+        TransactionCache cache = new TransactionCache(10, Duration.ofMinutes(1), meterRegistry);
+        TransactionSynchronizationManager.initSynchronization();
+
+        //when
+        cache.put(transaction("transactionId"));
+
+        //then
+        assertFalse(cache.get("transactionId").isPresent());
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(TransactionSynchronization::afterCommit);
+        assertTrue(cache.get("transactionId").isPresent());
+    }
+
+    @Test
+    void skipUnrecordedTransaction() {
+        //given
+        TransactionCache cache = new TransactionCache(10, Duration.ofMinutes(1), meterRegistry);
+
+        //when
+        //then
+        assertDoesNotThrow(() -> cache.put(transaction(null)));
+    }
+
+    private static TransactionDto transaction(String transactionId) {
+        return TransactionDto.builder()
+                .transactionId(transactionId)
+                .amount(1000L)
+                .build();
+    }
+}
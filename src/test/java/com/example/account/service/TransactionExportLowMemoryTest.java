@@ -0,0 +1,98 @@
+package com.example.account.service;
+
+import com.example.account.domain.Account;
+import com.example.account.repository.AccountRepository;
+import com.example.account.repository.AccountUserRepository;
+import com.example.account.type.AccountStatus;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 힙보다 큰 내보내기 (./gradlew lowMemoryTest, -Xmx128m)
+ * 메모리 DB 는 힙을 같이 쓰므로 파일 DB 로 띄운다.
+ */
+@Tag("low-memory")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:file:./build/low-memory-test/db;CACHE_SIZE=4096",
+        "spring.jpa.properties.hibernate.show_sql=false",
+        "spring.jpa.properties.hibernate.format_sql=false"
+})
+class TransactionExportLowMemoryTest {
+    private static final long ROWS = Long.getLong("export.rows", 1_000_000L);
+    private static final LocalDateTime FROM = LocalDateTime.of(2022, 1, 1, 0, 0);
+
+    @Autowired
+    private TransactionExportService transactionExportService;
+
+    @Autowired
+    private AccountUserRepository accountUserRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void exportMoreThanHeap() {
+        //given
+        Account account = accountRepository.save(Account.builder()
+                .accountUser(accountUserRepository.findById(1L).get())
+                .accountNumber("7000000000")
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(0L)
+                .registeredAt(FROM)
+                .build());
+        // DB 안에서 바로 생성해서 테스트 JVM 힙을 쓰지 않는다
+        jdbcTemplate.update("insert into transaction"
+                        + " (id, account_id, transaction_type, transaction_result_type, amount,"
+                        + " balance_snapshot, transaction_id, transacted_at, created_at, updated_at)"
+                        + " select x + 100000000, ?, 'USE', 'S', 100, 0, concat('export', x),"
+                        + " dateadd('SECOND', x, ?), now(), now()"
+                        + " from system_range(1, ?)",
+                account.getId(), FROM, ROWS);
+        CountingOutputStream outputStream = new CountingOutputStream();
+
+        //when
+        long count = transactionExportService.export(FROM, FROM.plusYears(1), outputStream);
+
+        //then
+        assertEquals(ROWS, count);
+        assertEquals(ROWS, outputStream.lines);
+        long maxHeap = Runtime.getRuntime().maxMemory();
+        assertTrue(outputStream.bytes > maxHeap,
+                "exported " + outputStream.bytes + " bytes, heap " + maxHeap);
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+        private long bytes;
+        private long lines;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+            if (b == '\n') {
+                lines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') {
+                    lines++;
+                }
+            }
+        }
+    }
+}
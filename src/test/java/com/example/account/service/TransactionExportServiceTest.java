@@ -0,0 +1,108 @@
+package com.example.account.service;
+
+import com.example.account.domain.Account;
+import com.example.account.domain.Transaction;
+import com.example.account.exception.AccountException;
+import com.example.account.repository.TransactionRepository;
+import com.example.account.type.ErrorCode;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.persistence.EntityManager;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionExportServiceTest {
+    private static final LocalDateTime FROM = LocalDateTime.of(2022, 6, 1, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2022, 6, 2, 0, 0);
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionExportService transactionExportService;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        transactionExportService =
+                new TransactionExportService(
+                        transactionRepository, entityManager, objectMapper, transactionManager);
+    }
+
+    @Test
+    void exportAsNdjson() throws Exception {
+        //given
+        Account account = Account.builder()
+                .accountNumber("1000000012")
+                .build();
+        AtomicBoolean closed = new AtomicBoolean();
+        given(transactionRepository.streamByTransactedAt(FROM, TO))
+                .willReturn(LongStream.rangeClosed(1, 3)
+                        .mapToObj(id -> Transaction.builder()
+                                .id(id)
+                                .account(account)
+                                .transactionType(TransactionType.USE)
+                                .transactionResultType(TransactionResultType.S)
+                                .amount(100L * id)
+                                .transactionId("transaction" + id)
+                                .transactedAt(FROM.plusMinutes(id))
+                                .build())
+                        .onClose(() -> closed.set(true)));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        //when
+        long count = transactionExportService.export(FROM, TO, outputStream);
+
+        //then
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n", -1);
+        assertEquals(3, count);
+        assertEquals(4, lines.length);
+        assertEquals("", lines[3]);
+        JsonNode second = new ObjectMapper().readTree(lines[1]);
+        assertEquals("transaction2", second.get("transactionId").asText());
+        assertEquals("1000000012", second.get("accountNumber").asText());
+        assertEquals(200L, second.get("amount").asLong());
+        assertEquals("2022-06-01T00:02:00", second.get("transactedAt").asText());
+        verify(entityManager, times(3)).detach(any());
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void invalidRange() {
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionExportService.export(TO, FROM, new ByteArrayOutputStream()));
+
+        //then
+        assertEquals(ErrorCode.INVALID_REQUEST, exception.getErrorCode());
+        verify(transactionRepository, never()).streamByTransactedAt(any(), any());
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.account.service;
+
+import com.example.account.domain.Account;
+import com.example.account.domain.Transaction;
+import com.example.account.dto.JournalRecord;
+import com.example.account.repository.AccountRepository;
+import com.example.account.repository.TransactionRepository;
+import com.example.account.type.JournalRecordState;
+import com.example.account.type.JournalReplayMode;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionJournalReplayerTest {
+    @Mock
+    private TransactionJournal transactionJournal;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUpJournal() {
+        willAnswer(invocation -> {
+            Consumer<JournalRecord> consumer = invocation.getArgument(0);
+            consumer.accept(record(1L, "tx1"));
+            consumer.accept(record(2L, "tx2"));
+            consumer.accept(record(3L, "tx3"));
+            return null;
+        }).given(transactionJournal).readAll(any());
+        given(transactionRepository.findExistingTransactionIds(anyCollection()))
+                .willReturn(List.of("tx1", "tx3"));
+        given(accountRepository.findExistingIds(anyCollection()))
+                .willReturn(List.of(7L));
+    }
+
+    @Test
+    void detectMissingTransactions() {
+        //given
+        TransactionJournalReplayer replayer = replayer();
+
+        //when
+        TransactionJournalReplayer.Result result = replayer.replay(JournalReplayMode.DETECT);
+
+        //then
+        assertEquals(3L, result.getRecords());
+        assertEquals(1L, result.getMissing());
+        assertEquals(0L, result.getRebuilt());
+        verify(transactionRepository, never()).saveAll(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rebuildMissingTransactions() {
+        //given
+        given(transactionManager.getTransaction(any()))
+                .willReturn(new SimpleTransactionStatus());
+        given(accountRepository.getById(7L))
+                .willReturn(Account.builder().id(7L).build());
+        TransactionJournalReplayer replayer = replayer();
+        ArgumentCaptor<List<Transaction>> captor = ArgumentCaptor.forClass(List.class);
+
+        //when
+        TransactionJournalReplayer.Result result = replayer.replay(JournalReplayMode.REBUILD);
+
+        //then
+        verify(transactionRepository).saveAll(captor.capture());
+        assertEquals(1L, result.getRebuilt());
+        assertEquals(1, captor.getValue().size());
+        Transaction rebuilt = captor.getValue().get(0);
+        assertEquals("tx2", rebuilt.getTransactionId());
+        assertEquals(7L, rebuilt.getAccount().getId());
+        assertEquals(2000L, rebuilt.getAmount());
+        assertEquals(TransactionType.USE, rebuilt.getTransactionType());
+        // 계좌의 마지막 거래(tx3)는 DB 에 있으므로 잔액은 그대로 둔다
+        verify(accountRepository, never()).updateBalance(anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void restoreBalanceWhenLatestTransactionIsMissing() {
+        //given
+        given(transactionRepository.findExistingTransactionIds(anyCollection()))
+                .willReturn(List.of("tx1"));
+        given(transactionManager.getTransaction(any()))
+                .willReturn(new SimpleTransactionStatus());
+        given(accountRepository.getById(7L))
+                .willReturn(Account.builder().id(7L).build());
+        TransactionJournalReplayer replayer = replayer();
+
+        //when
+        TransactionJournalReplayer.Result result = replayer.replay(JournalReplayMode.REBUILD);
+
+        //then
+        assertEquals(2L, result.getRebuilt());
+        verify(accountRepository).updateBalance(eq(7L), eq(7000L), any());
+    }
+
+    @Test
+    void refuseRebuildWhenAccountIsMissing() {
+        //given
+        given(accountRepository.findExistingIds(anyCollection()))
+                .willReturn(List.of());
+        TransactionJournalReplayer replayer = replayer();
+
+        //when
+        TransactionJournalReplayer.Result result = replayer.replay(JournalReplayMode.REBUILD);
+
+        //then
+        assertEquals(1L, result.getMissing());
+        assertEquals(1L, result.getOrphaned());
+        assertEquals(0L, result.getRebuilt());
+        verify(transactionRepository, never()).saveAll(any());
+        verify(accountRepository, never()).updateBalance(anyLong(), anyLong(), any());
+    }
+
+    private TransactionJournalReplayer replayer() {
+        return new TransactionJournalReplayer(transactionJournal, transactionRepository,
+                accountRepository, transactionManager, JournalReplayMode.DETECT);
+    }
+
+    private static JournalRecord record(long sequence, String transactionId) {
+        return new JournalRecord(sequence, transactionId, 7L,
+                TransactionType.USE, TransactionResultType.S,
+                sequence * 1000L, 10000L - sequence * 1000L, LocalDateTime.of(2022, 6, 1, 0, 0),
+                JournalRecordState.COMMITTED);
+    }
+}
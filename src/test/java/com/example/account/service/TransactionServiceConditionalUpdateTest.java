@@ -0,0 +1,68 @@
+package com.example.account.service;
+
+import com.example.account.dto.TransactionDto;
+import com.example.account.dto.UseBalance;
+import com.example.account.type.TransactionResultType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 조건부 UPDATE 모드의 일괄 사용을 실제 H2 에서 확인
+ * 조건부 UPDATE 는 실행 후 영속성 컨텍스트를 비우므로, 앞서 저장한 실패 거래가 DB 에 남는지 본다.
+ */
+@SpringBootTest(properties = {
+        "spring.redis.port=6384",
+        "spring.datasource.url=jdbc:h2:mem:conditional",
+        "account.transaction.conditional-update=true"
+})
+class TransactionServiceConditionalUpdateTest {
+    private static final long ACCOUNT_ID = 500_000_000L;
+    private static final String ACCOUNT_NUMBER = "7000000001";
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void keepEveryFailedTransactionInBatch() {
+        //given
+        jdbcTemplate.update("insert into account"
+                        + " (id, account_user_id, account_number, account_status, balance, opening_balance, version,"
+                        + " registered_at, created_at, updated_at)"
+                        + " values (?, 1, ?, 'IN_USE', 1000, 1000, 0, ?, now(), now())",
+                ACCOUNT_ID, ACCOUNT_NUMBER, LocalDateTime.now());
+
+        //when
+        List<TransactionDto> results = transactionService.useBalances(ACCOUNT_NUMBER, Arrays.asList(
+                new UseBalance.Request(1L, ACCOUNT_NUMBER, 600L),
+                new UseBalance.Request(1L, ACCOUNT_NUMBER, 600L),
+                new UseBalance.Request(1L, ACCOUNT_NUMBER, 600L),
+                new UseBalance.Request(1L, ACCOUNT_NUMBER, 100L)));
+
+        //then
+        assertEquals(TransactionResultType.S, results.get(0).getTransactionResultType());
+        assertEquals(TransactionResultType.F, results.get(1).getTransactionResultType());
+        assertEquals(TransactionResultType.F, results.get(2).getTransactionResultType());
+        assertEquals(TransactionResultType.S, results.get(3).getTransactionResultType());
+        assertEquals(2, count(TransactionResultType.F));
+        assertEquals(2, count(TransactionResultType.S));
+        assertEquals(300L, jdbcTemplate.queryForObject(
+                "select balance from account where id = ?", Long.class, ACCOUNT_ID));
+    }
+
+    private int count(TransactionResultType resultType) {
+        return jdbcTemplate.queryForObject(
+                "select count(*) from transaction where account_id = ? and transaction_result_type = ?",
+                Integer.class, ACCOUNT_ID, resultType.name());
+    }
+}
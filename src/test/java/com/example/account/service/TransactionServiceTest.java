@@ -3,7 +3,11 @@ package com.example.account.service;
 import com.example.account.domain.Account;
 import com.example.account.domain.AccountUser;
 import com.example.account.domain.Transaction;
+import com.example.account.dto.FailedTransaction;
+import com.example.account.dto.TransactionCursor;
 import com.example.account.dto.TransactionDto;
+import com.example.account.dto.TransactionPage;
+import com.example.account.dto.UseBalance;
 import com.example.account.exception.AccountException;
 import com.example.account.repository.AccountRepository;
 import com.example.account.repository.AccountUserRepository;
@@ -12,20 +16,31 @@ import com.example.account.type.AccountStatus;
 import com.example.account.type.ErrorCode;
 import com.example.account.type.TransactionResultType;
 import com.example.account.type.TransactionType;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -40,9 +55,35 @@ class TransactionServiceTest {
     @Mock
     private TransactionRepository transactionRepository;
 
+    @Mock
+    private TransactionCache transactionCache;
+
+    @Mock
+    private TransactionJournal transactionJournal;
+
+    @Mock
+    private AccountMetrics accountMetrics;
+
+    @Spy
+    private TransactionIdGenerator transactionIdGenerator = new UuidTransactionIdGenerator();
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
     @InjectMocks
     private TransactionService transactionService;
 
+    // 캐시는 mock repository 위에 실제 객체로 두어 캐시 미스 시의 조회도 그대로 검증한다
+    @BeforeEach
+    void setUpAccountCache() {
+        ReflectionTestUtils.setField(transactionService, "accountCache",
+                new AccountCache(accountUserRepository, accountRepository, redissonClient,
+                        100, Duration.ofMinutes(1), meterRegistry));
+    }
+
     @Test
     void successUseBalance() {
         //given
@@ -63,7 +104,7 @@ class TransactionServiceTest {
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.of(account));
 
-        given(transactionRepository.save(any()))
+        given(transactionRepository.saveAndFlush(any()))
                 .willReturn(Transaction.builder()
                         .account(account)
                         .transactionType(TransactionType.USE)
@@ -83,7 +124,8 @@ class TransactionServiceTest {
         );
 
         //then
-        verify(transactionRepository, times(1)).save(captor.capture());
+        verify(transactionRepository, times(1)).saveAndFlush(captor.capture());
+        verify(transactionJournal, times(1)).append(any());
         assertEquals(200L, captor.getValue().getAmount());
         assertEquals(9800L, captor.getValue().getBalanceSnapshot());
         assertEquals(9000L, transactionDto.getBalanceSnapshot());
@@ -239,7 +281,7 @@ class TransactionServiceTest {
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.of(account));
 
-        given(transactionRepository.save(any()))
+        given(transactionRepository.saveAndFlush(any()))
                 .willReturn(Transaction.builder()
                         .account(account)
                         .transactionType(TransactionType.USE)
@@ -256,7 +298,7 @@ class TransactionServiceTest {
         transactionService.saveFailedUseTransaction("1234567890", 200L);
 
         //then
-        verify(transactionRepository, times(1)).save(captor.capture());
+        verify(transactionRepository, times(1)).saveAndFlush(captor.capture());
         assertEquals(200L, captor.getValue().getAmount());
         assertEquals(10000L, captor.getValue().getBalanceSnapshot());
         assertEquals(TransactionResultType.F, captor.getValue().getTransactionResultType());
@@ -291,8 +333,10 @@ class TransactionServiceTest {
 
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.of(account));
+        given(accountRepository.findById(any()))
+                .willReturn(Optional.of(account));
 
-        given(transactionRepository.save(any()))
+        given(transactionRepository.saveAndFlush(any()))
                 .willReturn(Transaction.builder()
                         .account(account)
                         .transactionType(TransactionType.CANCEL)
@@ -313,7 +357,7 @@ class TransactionServiceTest {
         );
 
         //then
-        verify(transactionRepository, times(1)).save(captor.capture());
+        verify(transactionRepository, times(1)).saveAndFlush(captor.capture());
         assertEquals(1000L, captor.getValue().getAmount());
         assertEquals(10000L + 1000L, captor.getValue().getBalanceSnapshot());
         assertEquals(TransactionResultType.S, transactionDto.getTransactionResultType());
@@ -397,6 +441,8 @@ class TransactionServiceTest {
 
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.of(harryAccount));
+        given(accountRepository.findById(any()))
+                .willReturn(Optional.of(harryAccount));
 
         given(transactionRepository.findByTransactionId(anyString()))
                 .willReturn(Optional.of(transaction));
@@ -439,6 +485,8 @@ class TransactionServiceTest {
 
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.of(pobiAccount));
+        given(accountRepository.findById(any()))
+                .willReturn(Optional.of(pobiAccount));
 
         given(transactionRepository.findByTransactionId(anyString()))
                 .willReturn(Optional.of(transaction));
@@ -481,6 +529,8 @@ class TransactionServiceTest {
 
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.of(pobiAccount));
+        given(accountRepository.findById(any()))
+                .willReturn(Optional.of(pobiAccount));
 
         given(transactionRepository.findByTransactionId(anyString()))
                 .willReturn(Optional.of(transaction));
@@ -533,6 +583,26 @@ class TransactionServiceTest {
         assertEquals("transactionId", transactionDto.getTransactionId());
     }
 
+    @Test
+    @DisplayName("캐시에 있는 거래는 DB 를 조회하지 않음")
+    void queryTransaction_cacheHit() {
+        //given
+        given(transactionCache.get("transactionId"))
+                .willReturn(Optional.of(TransactionDto.builder()
+                        .transactionId("transactionId")
+                        .transactionType(TransactionType.USE)
+                        .transactionResultType(TransactionResultType.S)
+                        .amount(1000L)
+                        .build()));
+
+        //when
+        TransactionDto transactionDto = transactionService.queryTransaction("transactionId");
+
+        //then
+        verify(transactionRepository, never()).findByTransactionId(anyString());
+        assertEquals(1000L, transactionDto.getAmount());
+    }
+
     @Test
     @DisplayName("원거래 없음 - 거래 조회 실패")
     void queryTransaction_TransactionNotFound() {
@@ -547,4 +617,316 @@ class TransactionServiceTest {
         //then
         assertEquals(ErrorCode.TRANSACTION_NOT_FOUND, exception.getErrorCode());
     }
+
+    @Test
+    @DisplayName("조건부 UPDATE 로 잔액 사용 성공")
+    void successUseBalance_conditionalUpdate() {
+        //given
+        ReflectionTestUtils.setField(transactionService, "conditionalUpdate", true);
+        AccountUser accountUser = AccountUser.builder()
+                .id(12L)
+                .name("pobi")
+                .build();
+
+        Account account = Account.builder()
+                .accountUser(accountUser)
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(9800L)
+                .accountNumber("1000000012")
+                .build();
+
+        given(accountRepository.useBalanceIfSufficient(anyString(), anyLong(), anyLong(), any()))
+                .willReturn(1);
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(transactionRepository.saveAndFlush(any()))
+                .willReturn(Transaction.builder()
+                        .account(account)
+                        .transactionType(TransactionType.USE)
+                        .transactionResultType(TransactionResultType.S)
+                        .transactedAt(LocalDateTime.now())
+                        .amount(200L)
+                        .balanceSnapshot(9800L)
+                        .build());
+        ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(Transaction.class);
+
+        //when
+        TransactionDto transactionDto = transactionService.useBalance(
+                12L, "1000000012", 200L);
+
+        //then
+        verify(accountRepository, times(1))
+                .useBalanceIfSufficient(eq("1000000012"), eq(12L), eq(200L), any());
+        verify(accountUserRepository, never()).findById(anyLong());
+        verify(transactionRepository, times(1)).saveAndFlush(captor.capture());
+        assertEquals(9800L, captor.getValue().getBalanceSnapshot());
+        assertEquals(TransactionResultType.S, transactionDto.getTransactionResultType());
+    }
+
+    @Test
+    @DisplayName("조건부 UPDATE 실패 - 실패 사유 판별")
+    void useBalance_conditionalUpdate_exceedBalance() {
+        //given
+        ReflectionTestUtils.setField(transactionService, "conditionalUpdate", true);
+        AccountUser accountUser = AccountUser.builder()
+                .id(12L)
+                .name("pobi")
+                .build();
+
+        given(accountRepository.useBalanceIfSufficient(anyString(), anyLong(), anyLong(), any()))
+                .willReturn(0);
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(accountUser));
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(Account.builder()
+                        .accountUser(accountUser)
+                        .accountStatus(AccountStatus.IN_USE)
+                        .balance(100L)
+                        .accountNumber("1000000012")
+                        .build()));
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionService.useBalance(12L, "1000000012", 1000L));
+
+        //then
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
+        verify(transactionRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("조건부 UPDATE 실패 - 해지 계좌")
+    void useBalance_conditionalUpdate_unregistered() {
+        //given
+        ReflectionTestUtils.setField(transactionService, "conditionalUpdate", true);
+        AccountUser accountUser = AccountUser.builder()
+                .id(12L)
+                .name("pobi")
+                .build();
+
+        given(accountRepository.useBalanceIfSufficient(anyString(), anyLong(), anyLong(), any()))
+                .willReturn(0);
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(accountUser));
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(Account.builder()
+                        .accountUser(accountUser)
+                        .accountStatus(AccountStatus.UNREGISTERED)
+                        .balance(10000L)
+                        .accountNumber("1000000012")
+                        .build()));
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionService.useBalance(12L, "1000000012", 1000L));
+
+        //then
+        assertEquals(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED, exception.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("일괄 사용 - 건별 성공/실패 기록")
+    void useBalances_partialFailure() {
+        //given
+        AccountUser accountUser = AccountUser.builder()
+                .id(12L)
+                .name("pobi")
+                .build();
+
+        Account account = Account.builder()
+                .accountUser(accountUser)
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(1000L)
+                .accountNumber("1000000012")
+                .build();
+
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(accountUser));
+        given(transactionRepository.save(any()))
+                .willAnswer(invocation -> invocation.getArgument(0));
+
+        //when
+        List<TransactionDto> results = transactionService.useBalances("1000000012",
+                Arrays.asList(
+                        new UseBalance.Request(12L, "1000000012", 600L),
+                        new UseBalance.Request(12L, "1000000012", 600L),
+                        new UseBalance.Request(12L, "1000000012", 400L)
+                ));
+
+        //then
+        verify(accountRepository, times(1)).findByAccountNumber(anyString());
+        verify(accountUserRepository, times(1)).findById(anyLong());
+        verify(transactionRepository, times(3)).save(any());
+        assertEquals(TransactionResultType.S, results.get(0).getTransactionResultType());
+        assertEquals(400L, results.get(0).getBalanceSnapshot());
+        assertEquals(TransactionResultType.F, results.get(1).getTransactionResultType());
+        assertEquals(400L, results.get(1).getBalanceSnapshot());
+        assertEquals(TransactionResultType.S, results.get(2).getTransactionResultType());
+        assertEquals(0L, results.get(2).getBalanceSnapshot());
+        assertEquals(0L, account.getBalance());
+    }
+
+    @Test
+    @DisplayName("일괄 사용 - 계좌 없음")
+    void useBalances_accountNotFound() {
+        //given
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.empty());
+
+        //when
+        List<TransactionDto> results = transactionService.useBalances("1000000012",
+                Arrays.asList(
+                        new UseBalance.Request(12L, "1000000012", 600L),
+                        new UseBalance.Request(12L, "1000000012", 400L)
+                ));
+
+        //then
+        verify(transactionRepository, never()).save(any());
+        assertEquals(2, results.size());
+        assertEquals(TransactionResultType.F, results.get(1).getTransactionResultType());
+        assertEquals(400L, results.get(1).getAmount());
+    }
+
+    @Test
+    @DisplayName("비동기 실패 거래 일괄 저장")
+    void saveFailedTransactions() {
+        //given
+        AccountUser accountUser = AccountUser.builder()
+                .id(12L)
+                .name("pobi")
+                .build();
+        Account account = Account.builder()
+                .accountUser(accountUser)
+                .balance(10000L)
+                .accountStatus(AccountStatus.IN_USE)
+                .accountNumber("1000000012")
+                .build();
+        given(accountRepository.findByAccountNumberIn(anyCollection()))
+                .willReturn(Arrays.asList(account));
+        ArgumentCaptor<List<Transaction>> captor = ArgumentCaptor.forClass(List.class);
+
+        //when
+        transactionService.saveFailedTransactions(Arrays.asList(
+                new FailedTransaction(TransactionType.USE, "1000000012", 200L, LocalDateTime.now()),
+                new FailedTransaction(TransactionType.CANCEL, "1000000099", 300L, LocalDateTime.now()),
+                new FailedTransaction(TransactionType.CANCEL, "1000000012", 400L, LocalDateTime.now())
+        ));
+
+        //then
+        verify(transactionRepository, times(1)).saveAll(captor.capture());
+        List<Transaction> saved = captor.getValue();
+        assertEquals(2, saved.size());
+        assertEquals(TransactionResultType.F, saved.get(0).getTransactionResultType());
+        assertEquals(10000L, saved.get(0).getBalanceSnapshot());
+        assertEquals(TransactionType.CANCEL, saved.get(1).getTransactionType());
+        assertEquals(400L, saved.get(1).getAmount());
+    }
+
+    @Test
+    @DisplayName("거래 내역 첫 페이지 - 다음 커서 생성")
+    void getTransactions_firstPage() {
+        //given
+        Account account = Account.builder()
+                .id(3L)
+                .accountUser(AccountUser.builder().id(12L).build())
+                .accountStatus(AccountStatus.IN_USE)
+                .accountNumber("1000000012")
+                .build();
+        LocalDateTime now = LocalDateTime.of(2022, 6, 1, 12, 0);
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(transactionRepository.findHistory(eq(3L), eq(TransactionType.USE), isNull(), any()))
+                .willReturn(Arrays.asList(
+                        history(account, 30L, now),
+                        history(account, 20L, now.minusMinutes(1)),
+                        history(account, 10L, now.minusMinutes(2))));
+        ArgumentCaptor<Pageable> captor = ArgumentCaptor.forClass(Pageable.class);
+
+        //when
+        TransactionPage page = transactionService.getTransactions(
+                "1000000012", null, 2, TransactionType.USE, null);
+
+        //then
+        verify(transactionRepository).findHistory(eq(3L), eq(TransactionType.USE), isNull(),
+                captor.capture());
+        assertEquals(3, captor.getValue().getPageSize());
+        assertEquals(2, page.getTransactions().size());
+        assertEquals("transaction20", page.getTransactions().get(1).getTransactionId());
+        TransactionCursor cursor = TransactionCursor.decode(page.getNextCursor());
+        assertEquals(20L, cursor.getId());
+        assertEquals(now.minusMinutes(1), cursor.getTransactedAt());
+    }
+
+    @Test
+    @DisplayName("거래 내역 다음 페이지 - 커서 이후부터 조회")
+    void getTransactions_nextPage() {
+        //given
+        Account account = Account.builder()
+                .id(3L)
+                .accountUser(AccountUser.builder().id(12L).build())
+                .accountStatus(AccountStatus.IN_USE)
+                .accountNumber("1000000012")
+                .build();
+        LocalDateTime transactedAt = LocalDateTime.of(2022, 6, 1, 12, 0);
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(transactionRepository.findHistoryAfter(eq(3L), isNull(), isNull(),
+                eq(transactedAt), eq(20L), any()))
+                .willReturn(Arrays.asList(history(account, 10L, transactedAt)));
+
+        //when
+        TransactionPage page = transactionService.getTransactions("1000000012",
+                new TransactionCursor(transactedAt, 20L).encode(), 2, null, null);
+
+        //then
+        verify(transactionRepository, never()).findHistory(any(), any(), any(), any());
+        assertEquals(1, page.getTransactions().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("거래 내역 - 잘못된 커서")
+    void getTransactions_invalidCursor() {
+        //given
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(Account.builder()
+                        .id(3L)
+                        .accountUser(AccountUser.builder().id(12L).build())
+                        .accountNumber("1000000012")
+                        .build()));
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionService.getTransactions("1000000012",
+                        "not-a-cursor", 20, null, null));
+
+        //then
+        assertEquals(ErrorCode.INVALID_REQUEST, exception.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("거래 내역 - 페이지 크기 제한")
+    void getTransactions_invalidSize() {
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionService.getTransactions("1000000012",
+                        null, 101, null, null));
+
+        //then
+        assertEquals(ErrorCode.INVALID_REQUEST, exception.getErrorCode());
+    }
+
+    private static Transaction history(Account account, Long id, LocalDateTime transactedAt) {
+        return Transaction.builder()
+                .id(id)
+                .account(account)
+                .transactionType(TransactionType.USE)
+                .transactionResultType(TransactionResultType.S)
+                .amount(100L)
+                .transactionId("transaction" + id)
+                .transactedAt(transactedAt)
+                .build();
+    }
 }